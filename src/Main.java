@@ -5,7 +5,7 @@ import java.io.IOException;
 public class Main {
 
     public static void main(String[] args) throws IOException {
-        HttpTaskServer server = new HttpTaskServer(Managers.getDefault());
+        HttpTaskServer server = new HttpTaskServer(Managers.getConcurrent(Managers.getBufferedHistory()), Runtime.getRuntime().availableProcessors());
         server.start();
         System.out.println("Server started");
     }
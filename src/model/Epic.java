@@ -1,14 +1,20 @@
 package model;
 import model.enums.Status;
+import model.enums.TaskType;
+import util.IntArraySet;
+import util.IntObjectMap;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
 
 public class Epic extends Task {
 
-    private final List<Integer> subTasksIds = new ArrayList<>();
+    private final IntArraySet subTasksIds = new IntArraySet();
     private LocalDateTime endTime;
+    private transient Aggregates aggregates;
 
     public Epic(int id, String name, String description, Status status, Duration duration) {
         super(id,name,description,status,duration);
@@ -37,6 +43,15 @@ public class Epic extends Task {
         this.endTime = endTime;
     }
 
+    public Epic(Epic epic, String name, String description) {
+        super(epic.getId(), name, description, epic.getStatus(), epic.getStartTime(), epic.getDuration());
+        this.endTime = epic.getEndTime();
+        epic.forEachSubTask(subTasksIds::add);
+        if (epic.aggregates != null) {
+            this.aggregates = new Aggregates(epic.aggregates);
+        }
+    }
+
 
 
     @Override
@@ -48,20 +63,174 @@ public class Epic extends Task {
         this.endTime = endTime;
     }
 
+    @Override
+    public TaskType getType() {
+        return TaskType.EPIC;
+    }
+
     public List<Integer> getSubTasks() {
-        return new ArrayList<>(subTasksIds);
+        List<Integer> ids = new ArrayList<>(subTasksIds.size());
+        subTasksIds.forEach(ids::add);
+        return ids;
+    }
+
+    public int getSubTaskCount() {
+        return subTasksIds.size();
+    }
+
+    public int getSubTaskId(int index) {
+        return subTasksIds.get(index);
+    }
+
+    public void forEachSubTask(IntConsumer action) {
+        subTasksIds.forEach(action);
     }
 
-    public void addSubTask(int id) {
-        subTasksIds.add(id);
+    public void addSubTask(SubTask subTask) {
+        if (aggregates().add(subTask)) {
+            subTasksIds.add(subTask.getId());
+        }
+        applyAggregates();
+    }
+
+    public void updateSubTask(SubTask subTask) {
+        aggregates().remove(subTask.getId());
+        aggregates().add(subTask);
+        applyAggregates();
     }
 
     public void removeSubTask(int id) {
-        subTasksIds.remove(Integer.valueOf(id));
+        if (aggregates().remove(id)) {
+            subTasksIds.remove(id);
+        }
+        applyAggregates();
     }
 
     public void clearSubTasks() {
         subTasksIds.clear();
+        aggregates = null;
+        applyAggregates();
+    }
+
+    private Aggregates aggregates() {
+        if (aggregates == null) {
+            aggregates = new Aggregates();
+        }
+        return aggregates;
+    }
+
+    private void applyAggregates() {
+        Aggregates current = aggregates();
+        status = current.status();
+        duration = current.totalDuration;
+        startTime = current.starts.isEmpty() ? null : current.starts.firstKey();
+        endTime = current.ends.isEmpty() ? null : current.ends.lastKey();
+    }
+
+    private static class Contribution {
+
+        private final Status status;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final Duration duration;
+
+        private Contribution(SubTask subTask) {
+            this.status = subTask.getStatus();
+            this.startTime = subTask.getStartTime();
+            this.duration = subTask.getDuration();
+            if (startTime != null && duration != null) {
+                this.endTime = startTime.plus(duration);
+            } else {
+                this.endTime = startTime;
+            }
+        }
+    }
+
+    private static class Aggregates {
+
+        private final IntObjectMap<Contribution> contributions;
+        private final TreeMap<LocalDateTime, Integer> starts;
+        private final TreeMap<LocalDateTime, Integer> ends;
+        private int inProgressCount;
+        private int doneCount;
+        private Duration totalDuration = Duration.ZERO;
+
+        private Aggregates() {
+            this.contributions = new IntObjectMap<>();
+            this.starts = new TreeMap<>();
+            this.ends = new TreeMap<>();
+        }
+
+        private Aggregates(Aggregates other) {
+            this.contributions = new IntObjectMap<>(other.contributions);
+            this.starts = new TreeMap<>(other.starts);
+            this.ends = new TreeMap<>(other.ends);
+            this.inProgressCount = other.inProgressCount;
+            this.doneCount = other.doneCount;
+            this.totalDuration = other.totalDuration;
+        }
+
+        private boolean add(SubTask subTask) {
+            Contribution contribution = new Contribution(subTask);
+            Contribution previous = contributions.put(subTask.getId(), contribution);
+            if (previous != null) {
+                unapply(previous);
+            }
+            if (contribution.status == Status.IN_PROGRESS) {
+                inProgressCount++;
+            } else if (contribution.status == Status.DONE) {
+                doneCount++;
+            }
+            if (contribution.duration != null) {
+                totalDuration = totalDuration.plus(contribution.duration);
+            }
+            if (contribution.startTime != null) {
+                starts.merge(contribution.startTime, 1, Integer::sum);
+                ends.merge(contribution.endTime, 1, Integer::sum);
+            }
+            return previous == null;
+        }
+
+        private boolean remove(int id) {
+            Contribution contribution = contributions.remove(id);
+            if (contribution == null) {
+                return false;
+            }
+            unapply(contribution);
+            return true;
+        }
+
+        private void unapply(Contribution contribution) {
+            if (contribution.status == Status.IN_PROGRESS) {
+                inProgressCount--;
+            } else if (contribution.status == Status.DONE) {
+                doneCount--;
+            }
+            if (contribution.duration != null) {
+                totalDuration = totalDuration.minus(contribution.duration);
+            }
+            if (contribution.startTime != null) {
+                decrement(starts, contribution.startTime);
+                decrement(ends, contribution.endTime);
+            }
+        }
+
+        private void decrement(TreeMap<LocalDateTime, Integer> counts, LocalDateTime key) {
+            counts.computeIfPresent(key, (time, count) -> count == 1 ? null : count - 1);
+        }
+
+        private Status status() {
+            if (contributions.isEmpty()) {
+                return Status.NEW;
+            }
+            if (inProgressCount > 0) {
+                return Status.IN_PROGRESS;
+            }
+            if (doneCount == contributions.size()) {
+                return Status.DONE;
+            }
+            return Status.NEW;
+        }
     }
 
     @Override
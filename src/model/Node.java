@@ -1,42 +0,0 @@
-package model;
-
-public class Node {
-
-    private Task task;
-    private Node prev;
-    private Node next;
-
-    public Node() {
-
-    }
-
-    public Node(Task task, Node prev, Node next) {
-        this.task = task;
-        this.prev = prev;
-        this.next = next;
-    }
-
-    public Task getTask() {
-        return task;
-    }
-
-    public void setTask(Task task) {
-        this.task = task;
-    }
-
-    public Node getPrev() {
-        return prev;
-    }
-
-    public void setPrev(Node prev) {
-        this.prev = prev;
-    }
-
-    public Node getNext() {
-        return next;
-    }
-
-    public void setNext(Node next) {
-        this.next = next;
-    }
-}
@@ -1,5 +1,6 @@
 package model;
 import model.enums.Status;
+import model.enums.TaskType;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
@@ -16,6 +17,11 @@ public class SubTask extends Task {
         return epicId;
     }
 
+    @Override
+    public TaskType getType() {
+        return TaskType.SUBTASK;
+    }
+
     @Override
     public String toString() {
         return "SubTask{" +
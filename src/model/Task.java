@@ -1,5 +1,6 @@
 package model;
 import model.enums.Status;
+import model.enums.TaskType;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -103,6 +104,10 @@ public class Task {
         return startTime.plus(duration);
     }
 
+    public TaskType getType() {
+        return TaskType.TASK;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
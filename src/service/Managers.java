@@ -2,24 +2,61 @@ package service;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import service.adapters.DurationAdapter;
+import service.adapters.IntArraySetAdapter;
 import service.adapters.LocalDateTimeAdapter;
 import service.file.FileBackedTaskManager;
+import service.managers.BufferedHistoryManager;
+import service.managers.ConcurrentTaskManager;
 import service.managers.HistoryManager;
 import service.managers.InMemoryHistoryManager;
 import service.managers.InMemoryTaskManager;
+import service.managers.SessionHistoryManager;
+import service.managers.SnapshotTaskManager;
 import service.managers.TaskManager;
+import util.IntArraySet;
 import java.io.File;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
 public class Managers {
 
+    private static final long MAX_JOURNAL_SIZE = 8 * 1024 * 1024;
+    private static final Duration MAX_JOURNAL_AGE = Duration.ofMinutes(5);
+    private static final int HISTORY_CAPACITY = 10_000;
+    private static final int SESSION_HISTORY_CAPACITY = 50;
+    private static final long SESSION_HISTORY_BUDGET = 64 * 1024 * 1024;
+    private static final Duration SESSION_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
     public static TaskManager getDefault() {
         return new InMemoryTaskManager();
     }
 
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    public static TaskManager getConcurrent(HistoryManager historyManager) {
+        return new ConcurrentTaskManager(historyManager);
+    }
+
+    public static TaskManager getSnapshot() {
+        return new SnapshotTaskManager();
+    }
+
     public static HistoryManager getDefaultHistory() {
-        return new InMemoryHistoryManager();
+        return getDefaultHistory(HISTORY_CAPACITY);
+    }
+
+    public static HistoryManager getDefaultHistory(int capacity) {
+        return new InMemoryHistoryManager(capacity);
+    }
+
+    public static HistoryManager getBufferedHistory() {
+        return new BufferedHistoryManager(getDefaultHistory());
+    }
+
+    public static SessionHistoryManager getSessionHistory() {
+        return new SessionHistoryManager(SESSION_HISTORY_CAPACITY, SESSION_HISTORY_BUDGET, SESSION_IDLE_TIMEOUT);
     }
 
     public static TaskManager getFileBackedTaskManager(String fileName) {
@@ -29,11 +66,35 @@ public class Managers {
         return new FileBackedTaskManager(new File(fileName));
     }
 
+    public static TaskManager getJournaledTaskManager(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("Имя файла не должно быть пустым или null");
+        }
+        FileBackedTaskManager manager = FileBackedTaskManager.loadFromFile(new File(fileName), true);
+        manager.startCompaction(MAX_JOURNAL_SIZE, MAX_JOURNAL_AGE);
+        return manager;
+    }
+
+    public static TaskManager getPagedTaskManager(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("Имя файла не должно быть пустым или null");
+        }
+        return FileBackedTaskManager.loadPaged(new File(fileName));
+    }
+
+    public static TaskManager getLazyTaskManager(String fileName, int cacheSize) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("Имя файла не должно быть пустым или null");
+        }
+        return FileBackedTaskManager.loadLazy(new File(fileName), cacheSize);
+    }
+
     public static Gson getGson() {
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.serializeNulls();
         gsonBuilder.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter());
         gsonBuilder.registerTypeAdapter(Duration.class, new DurationAdapter());
+        gsonBuilder.registerTypeAdapter(IntArraySet.class, new IntArraySetAdapter());
         return gsonBuilder.create();
     }
 }
@@ -0,0 +1,38 @@
+package service.adapters;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import util.IntArraySet;
+import java.io.IOException;
+
+public class IntArraySetAdapter extends TypeAdapter<IntArraySet> {
+
+    @Override
+    public void write(final JsonWriter jsonWriter, final IntArraySet set) throws IOException {
+        if (set == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+        jsonWriter.beginArray();
+        for (int i = 0; i < set.size(); i++) {
+            jsonWriter.value(set.get(i));
+        }
+        jsonWriter.endArray();
+    }
+
+    @Override
+    public IntArraySet read(final JsonReader jsonReader) throws IOException {
+        IntArraySet set = new IntArraySet();
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return set;
+        }
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            set.add(jsonReader.nextInt());
+        }
+        jsonReader.endArray();
+        return set;
+    }
+}
@@ -0,0 +1,276 @@
+package service.file;
+import exception.ManagerSaveException;
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import model.enums.Status;
+import model.enums.TaskType;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+final class BinarySnapshot {
+
+    static final int MAGIC = 0x544B5342;
+    static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+    private static final int NO_STATUS = 3;
+    private static final int HAS_START = 1 << 4;
+    private static final int HAS_DURATION = 1 << 5;
+    private static final int HAS_END = 1 << 6;
+
+    private BinarySnapshot() {
+    }
+
+    static void write(File file, List<? extends List<? extends Task>> groups) {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE))) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            int count = 0;
+            for (List<? extends Task> group : groups) {
+                count += group.size();
+            }
+            writeVarLong(output, count);
+            for (List<? extends Task> group : groups) {
+                for (Task task : group) {
+                    writeTask(output, task);
+                }
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при сохранении в файл", e);
+        }
+    }
+
+    static List<SnapshotLoader.Chunk> split(ByteBuffer buffer, int chunkSize) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new ManagerSaveException("Файл не является бинарным снимком", null);
+        }
+        int version = buffer.get(Integer.BYTES) & 0xFF;
+        if (version != VERSION) {
+            throw new ManagerSaveException("Неподдерживаемая версия снимка: " + version, null);
+        }
+        List<SnapshotLoader.Chunk> chunks = new ArrayList<>();
+        try {
+            buffer.position(Integer.BYTES + 1);
+            long count = readVarLong(buffer);
+            int from = buffer.position();
+            int records = 0;
+            for (long i = 0; i < count; i++) {
+                skipTask(buffer);
+                records++;
+                if (buffer.position() - from >= chunkSize || i == count - 1) {
+                    chunks.add(new SnapshotLoader.Chunk(from, buffer.position(), records));
+                    from = buffer.position();
+                    records = 0;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new ManagerSaveException("Снимок обрывается на позиции " + buffer.position(), e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new ManagerSaveException("Снимок повреждён на позиции " + buffer.position(), e);
+        }
+        return chunks;
+    }
+
+    static List<Task> read(ByteBuffer buffer, SnapshotLoader.Chunk chunk) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(chunk.from());
+        List<Task> result = new ArrayList<>(chunk.count());
+        byte[] scratch = new byte[256];
+        try {
+            for (int i = 0; i < chunk.count(); i++) {
+                scratch = readTask(view, scratch, result::add);
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new ManagerSaveException("Снимок повреждён на позиции " + view.position(), e);
+        }
+        return result;
+    }
+
+    static void writeTask(DataOutputStream output, Task task) throws IOException {
+        TaskType type = task.getType();
+        LocalDateTime start = task.getStartTime();
+        Duration duration = task.getDuration();
+        LocalDateTime end = task instanceof Epic epic ? epic.getEndTime() : null;
+        Status status = task.getStatus();
+        int header = type.ordinal() | (status != null ? status.ordinal() : NO_STATUS) << 2;
+        if (start != null) {
+            header |= HAS_START;
+        }
+        if (duration != null) {
+            header |= HAS_DURATION;
+        }
+        if (end != null) {
+            header |= HAS_END;
+        }
+        output.writeByte(header);
+        writeVarLong(output, task.getId());
+        writeString(output, task.getName());
+        writeString(output, task.getDescription());
+        if (start != null) {
+            writeTime(output, start);
+        }
+        if (duration != null) {
+            writeVarLong(output, zigZag(duration.getSeconds()));
+            writeVarLong(output, duration.getNano());
+        }
+        if (end != null) {
+            writeTime(output, end);
+        }
+        if (task instanceof SubTask subtask) {
+            writeVarLong(output, subtask.getEpicId());
+        }
+    }
+
+    static byte[] readTask(ByteBuffer buffer, byte[] scratch, Consumer<Task> action) {
+        return readTask(buffer, scratch, true, action);
+    }
+
+    static byte[] readTask(ByteBuffer buffer, byte[] scratch, boolean withText, Consumer<Task> action) {
+        int header = buffer.get() & 0xFF;
+        TaskType type = TYPES[header & 3];
+        int code = header >>> 2 & 3;
+        Status status = code != NO_STATUS ? STATUSES[code] : null;
+        int id = (int) readVarLong(buffer);
+        String name = null;
+        String description = null;
+        if (withText) {
+            int length = readLength(buffer);
+            scratch = ensure(scratch, length);
+            name = readString(buffer, scratch, length);
+            length = readLength(buffer);
+            scratch = ensure(scratch, length);
+            description = readString(buffer, scratch, length);
+        } else {
+            skipString(buffer);
+            skipString(buffer);
+        }
+        LocalDateTime start = (header & HAS_START) != 0 ? readTime(buffer) : null;
+        Duration duration = Duration.ZERO;
+        if ((header & HAS_DURATION) != 0) {
+            long seconds = unZigZag(readVarLong(buffer));
+            duration = Duration.ofSeconds(seconds, readVarLong(buffer));
+        }
+        LocalDateTime end = (header & HAS_END) != 0 ? readTime(buffer) : null;
+        switch (type) {
+            case TASK -> action.accept(new Task(id, name, description, status, start, duration));
+            case EPIC -> action.accept(new Epic(id, name, description, status, start, duration, end));
+            case SUBTASK -> action.accept(new SubTask(id, name, description, status, start, duration,
+                    (int) readVarLong(buffer)));
+        }
+        return scratch;
+    }
+
+    private static void skipTask(ByteBuffer buffer) {
+        int header = buffer.get() & 0xFF;
+        readVarLong(buffer);
+        skipString(buffer);
+        skipString(buffer);
+        int varints = 0;
+        if ((header & HAS_START) != 0) {
+            varints += 2;
+        }
+        if ((header & HAS_DURATION) != 0) {
+            varints += 2;
+        }
+        if ((header & HAS_END) != 0) {
+            varints += 2;
+        }
+        if (TYPES[header & 3] == TaskType.SUBTASK) {
+            varints++;
+        }
+        for (int i = 0; i < varints; i++) {
+            readVarLong(buffer);
+        }
+    }
+
+    private static void skipString(ByteBuffer buffer) {
+        int length = readLength(buffer);
+        if (length > 0) {
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    private static void writeTime(DataOutputStream output, LocalDateTime time) throws IOException {
+        writeVarLong(output, zigZag(time.toEpochSecond(ZoneOffset.UTC)));
+        writeVarLong(output, time.getNano());
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer) {
+        long seconds = unZigZag(readVarLong(buffer));
+        return LocalDateTime.ofEpochSecond(seconds, (int) readVarLong(buffer), ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(output, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(output, bytes.length + 1L);
+        output.write(bytes);
+    }
+
+    private static int readLength(ByteBuffer buffer) {
+        long length = readVarLong(buffer) - 1;
+        if (length < -1 || length > buffer.remaining()) {
+            throw new ManagerSaveException("Неверная длина строки " + length + " на позиции " + buffer.position(), null);
+        }
+        return (int) length;
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] scratch, int length) {
+        if (length < 0) {
+            return null;
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ensure(byte[] buffer, int length) {
+        return length > buffer.length ? new byte[Math.max(length, buffer.length * 2)] : buffer;
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new ManagerSaveException("Слишком длинное число в снимке на позиции " + buffer.position(), null);
+    }
+
+    private static long zigZag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unZigZag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
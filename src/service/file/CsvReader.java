@@ -0,0 +1,346 @@
+package service.file;
+import exception.ManagerSaveException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+final class CsvReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INCOMPLETE = -1;
+
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+    private boolean exhausted;
+    private int recordStart;
+    private int recordEnd;
+    private int size;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];
+    private boolean[] quoted = new boolean[16];
+    private byte[] scratch = new byte[256];
+
+    CsvReader(ByteBuffer buffer, int from, int to) {
+        this.channel = null;
+        this.buffer = buffer;
+        this.position = from;
+        this.limit = to;
+        this.exhausted = true;
+    }
+
+    CsvReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.exhausted = false;
+    }
+
+    boolean next() {
+        while (true) {
+            if (position >= limit && !fill()) {
+                return false;
+            }
+            int next = parseRecord(position);
+            if (next == INCOMPLETE) {
+                if (!fill()) {
+                    throw new ManagerSaveException("Незакрытые кавычки в записи CSV: " + record(), null);
+                }
+                continue;
+            }
+            position = next;
+            if (!isBlank()) {
+                return true;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty(int field) {
+        return starts[field] == ends[field];
+    }
+
+    boolean isNull(int field) {
+        return !quoted[field] && isEmpty(field);
+    }
+
+    boolean is(int field, String value) {
+        if (escaped[field] || ends[field] - starts[field] != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (buffer.get(starts[field] + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String text(int field) {
+        String value = decode(starts[field], ends[field]);
+        return escaped[field] ? value.replace("\"\"", "\"") : value;
+    }
+
+    String record() {
+        return decode(recordStart, Math.min(recordEnd, limit));
+    }
+
+    int parseInt(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        int position = start;
+        boolean negative = position < end && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        if (position == end) {
+            throw new NumberFormatException("Пустое число");
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(decode(start, end));
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw new NumberFormatException(decode(start, end));
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException(decode(start, end));
+        }
+        return (int) value;
+    }
+
+    <E extends Enum<E>> E parseEnum(E[] constants, int field) {
+        int start = starts[field];
+        int length = ends[field] - start;
+        for (E constant : constants) {
+            String name = constant.name();
+            if (name.length() == length && equalsIgnoreCase(name, start)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное значение: " + text(field));
+    }
+
+    LocalDateTime parseDateTime(int field) {
+        int p = starts[field];
+        int length = ends[field] - p;
+        if (length < 16 || buffer.get(p + 4) != '-' || buffer.get(p + 7) != '-' || buffer.get(p + 10) != 'T'
+                || buffer.get(p + 13) != ':') {
+            return LocalDateTime.parse(text(field));
+        }
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            if (length < 19 || buffer.get(p + 16) != ':') {
+                return LocalDateTime.parse(text(field));
+            }
+            second = digits(p + 17, 2);
+            if (length > 19) {
+                int fraction = length - 20;
+                if (buffer.get(p + 19) != '.' || fraction < 1 || fraction > 9) {
+                    return LocalDateTime.parse(text(field));
+                }
+                nano = digits(p + 20, fraction);
+                for (int i = fraction; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        return LocalDateTime.of(digits(p, 4), digits(p + 5, 2), digits(p + 8, 2),
+                digits(p + 11, 2), digits(p + 14, 2), second, nano);
+    }
+
+    Duration parseDuration(int field) {
+        int p = starts[field];
+        int end = ends[field];
+        if (end - p < 3 || buffer.get(p) != 'P' || buffer.get(p + 1) != 'T') {
+            return Duration.parse(text(field));
+        }
+        long seconds = 0;
+        p += 2;
+        while (p < end) {
+            long value = 0;
+            int digitsStart = p;
+            while (p < end && buffer.get(p) >= '0' && buffer.get(p) <= '9') {
+                value = value * 10 + buffer.get(p) - '0';
+                p++;
+            }
+            if (p == digitsStart || p == end || p - digitsStart > 15) {
+                return Duration.parse(text(field));
+            }
+            switch (buffer.get(p)) {
+                case 'H' -> seconds += value * 3600;
+                case 'M' -> seconds += value * 60;
+                case 'S' -> seconds += value;
+                default -> {
+                    return Duration.parse(text(field));
+                }
+            }
+            p++;
+        }
+        return Duration.ofSeconds(seconds);
+    }
+
+    private int parseRecord(int from) {
+        recordStart = from;
+        size = 0;
+        int p = from;
+        while (true) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                escaped = Arrays.copyOf(escaped, size * 2);
+                quoted = Arrays.copyOf(quoted, size * 2);
+            }
+            int field = size++;
+            escaped[field] = false;
+            quoted[field] = p < limit && buffer.get(p) == '"';
+            if (quoted[field]) {
+                p++;
+                starts[field] = p;
+                while (true) {
+                    if (p >= limit) {
+                        return exhausted ? fail(from) : INCOMPLETE;
+                    }
+                    if (buffer.get(p) == '"') {
+                        if (p + 1 >= limit && !exhausted) {
+                            return INCOMPLETE;
+                        }
+                        if (p + 1 < limit && buffer.get(p + 1) == '"') {
+                            escaped[field] = true;
+                            p += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                ends[field] = p;
+                p++;
+                if (p < limit && buffer.get(p) == '\r') {
+                    p++;
+                }
+                if (p < limit && buffer.get(p) != ',' && buffer.get(p) != '\n') {
+                    recordEnd = p;
+                    throw new ManagerSaveException("Лишние символы после кавычек в записи CSV: " + record(), null);
+                }
+            } else {
+                starts[field] = p;
+                while (p < limit && buffer.get(p) != ',' && buffer.get(p) != '\n') {
+                    p++;
+                }
+                if (p >= limit && !exhausted) {
+                    return INCOMPLETE;
+                }
+                ends[field] = p > starts[field] && buffer.get(p - 1) == '\r' && (p >= limit || buffer.get(p) == '\n')
+                        ? p - 1 : p;
+            }
+            if (p >= limit) {
+                recordEnd = p;
+                return p;
+            }
+            if (buffer.get(p) == '\n') {
+                recordEnd = p;
+                return p + 1;
+            }
+            p++;
+        }
+    }
+
+    private boolean isBlank() {
+        if (size > 1 || escaped[0]) {
+            return false;
+        }
+        for (int i = starts[0]; i < ends[0]; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int fail(int from) {
+        recordStart = from;
+        recordEnd = limit;
+        throw new ManagerSaveException("Незакрытые кавычки в записи CSV: " + record(), null);
+    }
+
+    private boolean fill() {
+        if (exhausted) {
+            return false;
+        }
+        int pending = limit - position;
+        if (position > 0) {
+            buffer.position(position).limit(limit);
+            buffer.compact();
+        } else {
+            buffer.position(limit).limit(buffer.capacity());
+        }
+        if (!buffer.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        try {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                exhausted = true;
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при чтении CSV", e);
+        }
+        limit = buffer.position();
+        position = 0;
+        return exhausted ? pending > 0 : true;
+    }
+
+    private boolean equalsIgnoreCase(String name, int start) {
+        for (int i = 0; i < name.length(); i++) {
+            int b = buffer.get(start + i);
+            if (b >= 'a' && b <= 'z') {
+                b -= 'a' - 'A';
+            }
+            if (b != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int digits(int position, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int digit = buffer.get(position + i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeParseException("Ожидалась цифра", decode(position, position + count), i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
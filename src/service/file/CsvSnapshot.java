@@ -0,0 +1,91 @@
+package service.file;
+import exception.ManagerSaveException;
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import model.enums.Status;
+import model.enums.TaskType;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class CsvSnapshot {
+
+    static final String HEADER = "id,type,name,description,status,startTime,duration,endTime,epicId";
+
+    private static final int FIELDS = 9;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private CsvSnapshot() {
+    }
+
+    static List<SnapshotLoader.Chunk> split(ByteBuffer buffer, int chunkSize) {
+        List<SnapshotLoader.Chunk> chunks = new ArrayList<>();
+        int limit = buffer.limit();
+        boolean quoted = false;
+        int from = -1;
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                if (from < 0) {
+                    from = i + 1;
+                } else if (i + 1 - from >= chunkSize) {
+                    chunks.add(new SnapshotLoader.Chunk(from, i + 1, 0));
+                    from = i + 1;
+                }
+            }
+        }
+        if (from >= 0 && from < limit) {
+            chunks.add(new SnapshotLoader.Chunk(from, limit, 0));
+        }
+        return chunks;
+    }
+
+    static List<Task> read(ByteBuffer buffer, SnapshotLoader.Chunk chunk) {
+        CsvReader reader = new CsvReader(buffer, chunk.from(), chunk.to());
+        List<Task> result = new ArrayList<>();
+        while (reader.next()) {
+            result.add(task(reader, 0));
+        }
+        return result;
+    }
+
+    static Task task(CsvReader reader, int offset) {
+        try {
+            int count = reader.size() - offset;
+            if (count < FIELDS - 1) {
+                throw new IllegalArgumentException("Слишком мало полей");
+            }
+            if (count > FIELDS) {
+                throw new IllegalArgumentException("Слишком много полей");
+            }
+            int id = reader.parseInt(offset);
+            TaskType type = reader.parseEnum(TYPES, offset + 1);
+            String name = reader.isNull(offset + 2) ? null : reader.text(offset + 2);
+            String description = reader.isNull(offset + 3) ? null : reader.text(offset + 3);
+            Status status = reader.isEmpty(offset + 4) ? null : reader.parseEnum(STATUSES, offset + 4);
+            LocalDateTime startTime = reader.isEmpty(offset + 5) ? null : reader.parseDateTime(offset + 5);
+            Duration duration = reader.isEmpty(offset + 6) ? Duration.ZERO : reader.parseDuration(offset + 6);
+            LocalDateTime endTime = reader.isEmpty(offset + 7) ? null : reader.parseDateTime(offset + 7);
+            switch (type) {
+                case TASK:
+                    return new Task(id, name, description, status, startTime, duration);
+                case EPIC:
+                    return new Epic(id, name, description, status, startTime, duration, endTime);
+                default:
+                    if (count < FIELDS) {
+                        throw new IllegalArgumentException("Нет идентификатора эпика");
+                    }
+                    return new SubTask(id, name, description, status, startTime, duration,
+                            reader.parseInt(offset + 8));
+            }
+        } catch (RuntimeException e) {
+            throw new ManagerSaveException("Ошибка при разборе строки CSV: " + reader.record(), e);
+        }
+    }
+}
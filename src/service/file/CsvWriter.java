@@ -0,0 +1,152 @@
+package service.file;
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+final class CsvWriter {
+
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    String record(String operation, Task task) {
+        line.setLength(0);
+        line.append(operation).append(',');
+        appendTask(task);
+        return line.toString();
+    }
+
+    void write(Writer writer, Task task) throws IOException {
+        line.setLength(0);
+        appendTask(task);
+        line.append('\n');
+        int length = line.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+    }
+
+    private void appendTask(Task task) {
+        LocalDateTime start = task.getStartTime();
+        Duration duration = task.getDuration();
+        LocalDateTime end = task instanceof Epic epic ? epic.getEndTime()
+                : start != null && duration != null ? start.plus(duration) : null;
+        line.append(task.getId()).append(',').append(task.getType()).append(',');
+        appendText(task.getName());
+        line.append(',');
+        appendText(task.getDescription());
+        line.append(',');
+        if (task.getStatus() != null) {
+            line.append(task.getStatus());
+        }
+        line.append(',');
+        appendDateTime(start);
+        line.append(',');
+        appendDuration(duration);
+        line.append(',');
+        appendDateTime(end);
+        line.append(',');
+        if (task instanceof SubTask subtask) {
+            line.append(subtask.getEpicId());
+        }
+    }
+
+    private void appendText(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendDateTime(LocalDateTime value) {
+        if (value == null) {
+            return;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            line.append(value);
+            return;
+        }
+        appendDigits(value.getYear(), 4);
+        line.append('-');
+        appendDigits(value.getMonthValue(), 2);
+        line.append('-');
+        appendDigits(value.getDayOfMonth(), 2);
+        line.append('T');
+        appendDigits(value.getHour(), 2);
+        line.append(':');
+        appendDigits(value.getMinute(), 2);
+        int second = value.getSecond();
+        int nano = value.getNano();
+        if (second == 0 && nano == 0) {
+            return;
+        }
+        line.append(':');
+        appendDigits(second, 2);
+        if (nano == 0) {
+            return;
+        }
+        line.append('.');
+        if (nano % 1_000_000 == 0) {
+            appendDigits(nano / 1_000_000, 3);
+        } else if (nano % 1000 == 0) {
+            appendDigits(nano / 1000, 6);
+        } else {
+            appendDigits(nano, 9);
+        }
+    }
+
+    private void appendDuration(Duration value) {
+        if (value == null) {
+            return;
+        }
+        long seconds = value.getSeconds();
+        if (seconds < 0 || value.getNano() != 0) {
+            line.append(value);
+            return;
+        }
+        line.append("PT");
+        long hours = seconds / 3600;
+        int minutes = (int) (seconds % 3600 / 60);
+        int rest = (int) (seconds % 60);
+        if (hours != 0) {
+            line.append(hours).append('H');
+        }
+        if (minutes != 0) {
+            line.append(minutes).append('M');
+        }
+        if (rest != 0 || seconds == 0) {
+            line.append(rest).append('S');
+        }
+    }
+
+    private void appendDigits(int value, int width) {
+        int length = line.length();
+        line.setLength(length + width);
+        for (int i = length + width - 1; i >= length; i--) {
+            line.setCharAt(i, (char) ('0' + value % 10));
+            value /= 10;
+        }
+    }
+}
@@ -3,190 +3,449 @@ import exception.ManagerSaveException;
 import model.Epic;
 import model.SubTask;
 import model.Task;
-import model.enums.Status;
 import model.enums.TaskType;
-import service.managers.InMemoryTaskManager;
+import service.Managers;
+import service.managers.BufferedHistoryManager;
+import service.managers.ConcurrentTaskManager;
+import util.IntArraySet;
 import java.io.*;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
+public class FileBackedTaskManager extends ConcurrentTaskManager {
+
+    private static final String PUT = "PUT";
+    private static final String REMOVE = "REMOVE";
+    private static final String CLEAR = "CLEAR";
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     private final File file;
+    private final TaskJournal journal;
+    private final JournalCompactor compactor;
+    private final CsvWriter csv = new CsvWriter();
+    private final PersistentHistoryManager history;
+    private volatile boolean staleHistory;
+    private volatile SnapshotFormat snapshotFormat = SnapshotFormat.CSV;
+    private PageFile pages;
+    private BitSet skeletons;
+    private TextCache texts;
+    private long rewrittenPages;
+    private long replayMillis;
 
     public FileBackedTaskManager(File file) {
+        this(file, false);
+    }
+
+    public FileBackedTaskManager(File file, boolean journaled) {
+        this(file, journaled, null);
+        this.staleHistory = true;
+    }
+
+    private FileBackedTaskManager(File file, boolean journaled, PageFile pages) {
+        this(file, journaled, pages, new PersistentHistoryManager(Managers.getDefaultHistory(),
+                new HistoryLog(new File(file.getPath() + ".history"))));
+    }
+
+    private FileBackedTaskManager(File file, boolean journaled, PageFile pages, PersistentHistoryManager history) {
+        super(new BufferedHistoryManager(history));
         this.file = file;
+        this.journal = journaled ? new TaskJournal(new File(file.getPath() + ".journal")) : null;
+        this.compactor = journaled ? new JournalCompactor(file, journal) : null;
+        this.history = history;
+        this.pages = pages;
+    }
+
+    static FileBackedTaskManager scratch(File file) {
+        return new FileBackedTaskManager(file, false, null);
     }
 
     @Override
     public void addTask(Task task) {
-        super.addTask(task);
-        save();
+        persistPut(() -> super.addTask(task), List.of(task));
     }
 
     @Override
     public void addEpic(Epic epic) {
-        super.addEpic(epic);
-        save();
+        persistPut(() -> super.addEpic(epic), List.of(epic));
     }
 
     @Override
     public void addSubtask(SubTask subtask) {
-        super.addSubtask(subtask);
-        save();
+        persistPut(() -> super.addSubtask(subtask), List.of(subtask));
     }
 
     @Override
     public void updateTask(Task task) {
-        super.updateTask(task);
-        save();
+        persistPut(() -> super.updateTask(task), List.of(task));
     }
 
     @Override
     public void updateEpic(Epic epic) {
-        super.updateEpic(epic);
-        save();
+        persistPut(() -> super.updateEpic(epic), List.of(epic));
     }
 
     @Override
     public void updateSubtask(SubTask subtask) {
-        super.updateSubtask(subtask);
-        save();
+        persistPut(() -> super.updateSubtask(subtask), List.of(subtask));
+    }
+
+    @Override
+    public void addAll(List<? extends Task> batch) {
+        persistPut(() -> super.addAll(batch), batch);
+    }
+
+    @Override
+    public void updateAll(List<? extends Task> batch) {
+        persistPut(() -> super.updateAll(batch), batch);
     }
 
     @Override
     public void removeTask(int id) {
-        super.removeTask(id);
-        save();
+        persist(() -> super.removeTask(id), REMOVE + "," + TaskType.TASK + "," + id,
+                dirty -> touch(dirty, id, true));
     }
 
     @Override
     public void removeEpic(int epicId) {
-        super.removeEpic(epicId);
-        save();
+        persist(() -> super.removeEpic(epicId), REMOVE + "," + TaskType.EPIC + "," + epicId,
+                dirty -> touch(dirty, epicId, true));
     }
 
     @Override
     public void removeSubtask(int subtaskId) {
-        super.removeSubtask(subtaskId);
-        save();
+        persist(() -> super.removeSubtask(subtaskId), REMOVE + "," + TaskType.SUBTASK + "," + subtaskId,
+                dirty -> touch(dirty, subtaskId, true));
     }
 
     @Override
     public void deleteAllTasks() {
-        tasks.clear();
-        save();
+        persist(super::deleteAllTasks, CLEAR + "," + TaskType.TASK, null);
     }
 
     @Override
     public void deleteAllEpics() {
-        epics.clear();
-        save();
+        persist(super::deleteAllEpics, CLEAR + "," + TaskType.EPIC, null);
     }
 
     @Override
     public void deleteAllSubtasks() {
-        subtasks.clear();
-        save();
+        persist(super::deleteAllSubtasks, CLEAR + "," + TaskType.SUBTASK, null);
+    }
+
+    public void compact() {
+        if (pages != null) {
+            write(this::rewritePages);
+        } else if (compactor == null) {
+            write(this::save);
+        } else {
+            compactor.compact();
+        }
+    }
+
+    public void startCompaction(long maxJournalSize, Duration maxJournalAge) {
+        if (compactor == null) {
+            throw new IllegalStateException("Фоновое сжатие доступно только для журналируемого менеджера");
+        }
+        compactor.start(maxJournalSize, maxJournalAge);
+    }
+
+    public void close() {
+        ((BufferedHistoryManager) historyManager).flush();
+        history.close();
+        if (pages != null) {
+            write(pages::close);
+        }
+        if (compactor != null) {
+            compactor.stop();
+            journal.close();
+        }
+    }
+
+    public JournalMetrics getMetrics() {
+        if (pages != null) {
+            return read(() -> new JournalMetrics(0, 0, 0, 0, 0, rewrittenPages + pages.pageWrites(), 0));
+        }
+        if (compactor == null) {
+            return new JournalMetrics(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new JournalMetrics(journal.size(), compactor.lastSnapshotMillis(), replayMillis,
+                compactor.snapshotCount(), compactor.failureCount(), journal.batches(), journal.syncs());
+    }
+
+    public void setSnapshotFormat(SnapshotFormat format) {
+        snapshotFormat = format;
+        if (compactor != null) {
+            compactor.setSnapshotFormat(format);
+        }
+    }
+
+    public void setSyncPolicy(SyncPolicy policy, Duration interval, long maxPendingSize) {
+        if (journal == null) {
+            throw new IllegalStateException("Политика синхронизации доступна только для журналируемого менеджера");
+        }
+        journal.configure(policy, interval, maxPendingSize);
+    }
+
+    private void persistPut(Runnable change, List<? extends Task> changed) {
+        persist(change, () -> {
+            List<String> records = new ArrayList<>(changed.size());
+            for (Task task : changed) {
+                records.add(csv.record(PUT, task));
+            }
+            return records;
+        }, dirty -> changed.forEach(task -> touch(dirty, task.getId(), false)));
+    }
+
+    private void persist(Runnable change, String record, Consumer<IntArraySet> affected) {
+        persist(change, () -> List.of(record), affected);
+    }
+
+    private void persist(Runnable change, Supplier<List<String>> records, Consumer<IntArraySet> affected) {
+        if (staleHistory) {
+            write(this::dropStaleHistory);
+        }
+        if (pages != null) {
+            write(() -> {
+                IntArraySet dirty = new IntArraySet();
+                if (affected != null) {
+                    affected.accept(dirty);
+                }
+                change.run();
+                if (affected == null) {
+                    rewritePages();
+                } else {
+                    affected.accept(dirty);
+                    if (skeletons != null) {
+                        forget(dirty);
+                    }
+                    pages.flush(dirty, taskId -> view(find(taskId)));
+                }
+            });
+            return;
+        }
+        if (journal == null) {
+            write(() -> {
+                change.run();
+                save();
+            });
+            return;
+        }
+        long ticket = write(() -> {
+            change.run();
+            return journal.append(records.get());
+        });
+        journal.await(ticket);
+        compactor.onAppend();
+    }
+
+    private void dropStaleHistory() {
+        if (staleHistory) {
+            history.clear();
+            staleHistory = false;
+        }
+    }
+
+    private void restoreHistory() {
+        history.restore(this::find);
+    }
+
+    private void touch(IntArraySet dirty, int taskId, boolean withSubtasks) {
+        dirty.add(taskId);
+        SubTask subtask = subtasks.get(taskId);
+        if (subtask != null) {
+            dirty.add(subtask.getEpicId());
+        }
+        Epic epic = epics.get(taskId);
+        if (epic != null && withSubtasks) {
+            epic.forEachSubTask(dirty::add);
+        }
+    }
+
+    private Task find(int taskId) {
+        Task task = tasks.get(taskId);
+        if (task == null) {
+            task = epics.get(taskId);
+        }
+        return task != null ? task : subtasks.get(taskId);
+    }
+
+    @Override
+    protected <T extends Task> T view(T task) {
+        if (task == null || skeletons == null || !skeletons.get(task.getId())) {
+            return task;
+        }
+        String[] text = texts.get(task.getId());
+        if (text == null) {
+            Task stored = pages.read(task.getId());
+            text = new String[]{stored.getName(), stored.getDescription()};
+            texts.put(task.getId(), text);
+        }
+        return hydrate(task, text[0], text[1]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Task> T hydrate(T task, String name, String description) {
+        if (task instanceof Epic epic) {
+            return (T) new Epic(epic, name, description);
+        }
+        if (task instanceof SubTask subtask) {
+            return (T) new SubTask(subtask.getId(), name, description, subtask.getStatus(),
+                    subtask.getStartTime(), subtask.getDuration(), subtask.getEpicId());
+        }
+        return (T) new Task(task.getId(), name, description, task.getStatus(), task.getStartTime(), task.getDuration());
+    }
+
+    private void forget(IntArraySet dirty) {
+        for (int i = 0; i < dirty.size(); i++) {
+            Task stored = find(dirty.get(i));
+            if (stored == null || stored.getName() != null || stored.getDescription() != null) {
+                skeletons.clear(dirty.get(i));
+                texts.remove(dirty.get(i));
+            }
+        }
+    }
+
+    private void rewritePages() {
+        PageFile previous = pages;
+        pages = PageFile.create(file, List.of(getAllTasks(), getAllEpics(), getAllSubtasks()));
+        rewrittenPages += previous.pageWrites();
+        previous.close();
+    }
+
+    void replay(CsvReader record) {
+        if (record.is(0, PUT)) {
+            Task task = CsvSnapshot.task(record, 1);
+            id = Math.max(id, task.getId());
+            if (task instanceof Epic epic) {
+                if (epics.containsKey(epic.getId())) {
+                    super.updateEpic(epic);
+                } else {
+                    restore(epic);
+                }
+            } else if (task instanceof SubTask subtask) {
+                if (epics.containsKey(subtask.getEpicId())) {
+                    super.removeSubtask(subtask.getId());
+                    restore(subtask);
+                }
+            } else {
+                super.removeTask(task.getId());
+                restore(task);
+            }
+        } else if (record.is(0, REMOVE) && record.size() == 3) {
+            int targetId = record.parseInt(2);
+            switch (record.parseEnum(TYPES, 1)) {
+                case TASK -> super.removeTask(targetId);
+                case EPIC -> super.removeEpic(targetId);
+                case SUBTASK -> super.removeSubtask(targetId);
+            }
+        } else if (record.is(0, CLEAR) && record.size() == 2) {
+            switch (record.parseEnum(TYPES, 1)) {
+                case TASK -> super.deleteAllTasks();
+                case EPIC -> super.deleteAllEpics();
+                case SUBTASK -> super.deleteAllSubtasks();
+            }
+        } else {
+            throw new ManagerSaveException("Неизвестная запись журнала: " + record.record(), null);
+        }
     }
 
     private void save() {
-        try (Writer writer = new FileWriter(file)) {
-            writer.write("id,type,name,description,status,startTime,duration,endTime,epicId\n");
+        writeSnapshot(file, snapshotFormat);
+    }
+
+    void writeSnapshot(File target, SnapshotFormat format) {
+        if (format == SnapshotFormat.BINARY) {
+            BinarySnapshot.write(target, List.of(getAllTasks(), getAllEpics(), getAllSubtasks()));
+            return;
+        }
+        CsvWriter csv = new CsvWriter();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(target), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write(CsvSnapshot.HEADER + "\n");
             for (Task task : getAllTasks()) {
-                writer.write(toCSV(task) + "\n");
+                csv.write(writer, task);
             }
             for (Epic epic : getAllEpics()) {
-                writer.write(toCSV(epic) + "\n");
+                csv.write(writer, epic);
             }
             for (SubTask subtask : getAllSubtasks()) {
-                writer.write(toCSV(subtask) + "\n");
+                csv.write(writer, subtask);
             }
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка при сохранении в файл", e);
         }
     }
 
-    private String toCSV(Task task) {
-        String type = task instanceof Epic ? "EPIC" : (task instanceof SubTask ? "SUBTASK" : "TASK");
-        String epicId = task instanceof SubTask ? String.valueOf(((SubTask) task).getEpicId()) : "";
-
-        return String.format("%d,%s,%s,%s,%s,%s,%s,%s,%s",
-                task.getId(),
-                type,
-                task.getName(),
-                task.getDescription(),
-                task.getStatus(),
-                task.getStartTime() != null ? task.getStartTime().toString() : "",
-                task.getDuration() != null ? task.getDuration().toString() : "",
-                task.getEndTime() != null ? task.getEndTime().toString() : "",
-                epicId
-        );
-    }
-
-    private Task fromCSV(String[] fields) {
-        try {
-            int id = Integer.parseInt(fields[0]);
-            TaskType type = TaskType.valueOf(fields[1].toUpperCase());
-            String name = fields[2];
-            String description = fields[3];
-            Status status = Status.valueOf(fields[4].toUpperCase());
-            LocalDateTime startTime = fields[5].isEmpty() ? null : LocalDateTime.parse(fields[5]);
-            Duration duration = fields[6].isEmpty() ? Duration.ZERO : Duration.parse(fields[6]);
-            LocalDateTime endTime = fields[7].isEmpty() ? null : LocalDateTime.parse(fields[7]);
-
-            switch (type) {
-                case TASK:
-                    return new Task(id, name, description, status, startTime, duration);
-                case EPIC:
-                    return new Epic(id, name, description, status, startTime, duration,endTime);
-                case SUBTASK:
-                    int epicId = Integer.parseInt(fields[8]);
-                    return new SubTask(id, name, description, status, startTime, duration, epicId);
-                default:
-                    throw new IllegalArgumentException("Неизвестный тип задачи: " + type);
-            }
-        } catch (Exception e) {
-            throw new ManagerSaveException("Ошибка при разборе строки CSV: " + String.join(",", fields), e);
+    public static FileBackedTaskManager loadFromFile(File file) {
+        return loadFromFile(file, false);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, boolean journaled) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, journaled, null);
+        manager.readSnapshot(journaled);
+        if (manager.journal != null) {
+            long started = System.nanoTime();
+            new TaskJournal(manager.compactor.sealed()).replay(manager::replay);
+            manager.journal.replay(manager::replay);
+            manager.replayMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
         }
+        manager.restoreHistory();
+        return manager;
     }
 
-    public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
-        int maxId = 0;
+    public static FileBackedTaskManager loadPaged(File file) {
+        PageFile pages = openPages(file);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, false, pages);
+        manager.restoreLoaded(List.of(pages.load()));
+        manager.restoreHistory();
+        return manager;
+    }
 
-        try {
-            List<String> lines = Files.readAllLines(file.toPath());
-            if (lines.isEmpty()) {
-                return manager;
-            }
-            for (String line : lines.subList(1, lines.size())) {
-                if (line.isBlank()) continue;
-
-                String[] fields = line.split(",");
-                Task task = manager.fromCSV(fields);
-                maxId = Math.max(maxId, task.getId());
-                if (task instanceof Epic epic) {
-                    manager.epics.put(task.getId(), epic);
-                } else if (task instanceof SubTask subtask) {
-                    manager.subtasks.put(task.getId(), subtask);
-                    Epic epic = manager.epics.get(subtask.getEpicId());
-                    if (epic != null) {
-                        epic.addSubTask(subtask.getId());
-                    }
-                    manager.prioritizedTasks.add(subtask);
-                } else {
-                    manager.tasks.put(task.getId(), task);
-                    manager.prioritizedTasks.add(task);
-                }
+    public static FileBackedTaskManager loadLazy(File file, int cacheSize) {
+        TextCache texts = new TextCache(cacheSize);
+        PageFile pages = openPages(file);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, false, pages);
+        List<Task> loaded = pages.load(false);
+        BitSet skeletons = new BitSet();
+        for (Task task : loaded) {
+            skeletons.set(task.getId());
+        }
+        manager.skeletons = skeletons;
+        manager.texts = texts;
+        manager.restoreLoaded(List.of(loaded));
+        manager.restoreHistory();
+        return manager;
+    }
+
+    private static PageFile openPages(File file) {
+        if (file.length() > 0 && !PageFile.isPaged(file)) {
+            FileBackedTaskManager snapshot = loadFromFile(file);
+            PageFile.create(file, List.of(snapshot.getAllTasks(), snapshot.getAllEpics(), snapshot.getAllSubtasks()))
+                    .close();
+        }
+        return PageFile.open(file);
+    }
+
+    void readSnapshot(boolean optional) {
+        if (optional && !file.exists()) {
+            return;
+        }
+        restoreLoaded(SnapshotLoader.load(file));
+    }
+
+    private void restoreLoaded(List<List<Task>> batches) {
+        for (List<Task> batch : batches) {
+            for (Task task : batch) {
+                id = Math.max(id, task.getId() + 1);
             }
-            manager.id = maxId + 1;
-            return manager;
-        } catch (IOException e) {
-            throw new ManagerSaveException("Ошибка при загрузке из файла: " + file.getName(), e);
         }
+        restoreAll(batches);
     }
 
 }
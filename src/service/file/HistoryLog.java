@@ -0,0 +1,140 @@
+package service.file;
+import exception.ManagerSaveException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+final class HistoryLog {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final File file;
+    private final ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    private FileChannel channel;
+    private long written;
+    private long records;
+
+    HistoryLog(File file) {
+        this.file = file;
+        this.records = file.length() / Integer.BYTES;
+        this.written = records;
+    }
+
+    void append(int taskId) {
+        pending.putInt(taskId);
+        records++;
+        if (!pending.hasRemaining()) {
+            flush();
+        }
+    }
+
+    void flush() {
+        if (pending.position() == 0) {
+            return;
+        }
+        pending.flip();
+        try {
+            FileChannel output = channel();
+            long position = written * Integer.BYTES;
+            while (pending.hasRemaining()) {
+                position += output.write(pending, position);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при записи истории: " + file.getName(), e);
+        } finally {
+            pending.clear();
+        }
+        written = records;
+    }
+
+    int[] read() {
+        flush();
+        if (!file.exists()) {
+            return new int[0];
+        }
+        try (FileChannel input = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = input.size() / Integer.BYTES * Integer.BYTES;
+            if (size > Integer.MAX_VALUE) {
+                throw new ManagerSaveException("Журнал истории слишком велик: " + file.getName(), null);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (input.read(buffer, buffer.position()) < 0) {
+                    break;
+                }
+            }
+            IntBuffer ids = buffer.flip().asIntBuffer();
+            int[] result = new int[ids.remaining()];
+            ids.get(result);
+            return result;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при чтении истории: " + file.getName(), e);
+        }
+    }
+
+    void rewrite(int[] ids) {
+        File temporary = new File(file.getPath() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(ids.length * Integer.BYTES);
+        buffer.asIntBuffer().put(ids);
+        try (FileChannel output = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                output.write(buffer);
+            }
+            output.force(true);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при сжатии истории: " + temporary.getName(), e);
+        }
+        pending.clear();
+        close();
+        try {
+            Files.move(temporary.toPath(), file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при замене истории: " + file.getName(), e);
+        }
+        records = ids.length;
+        written = records;
+    }
+
+    void clear() {
+        pending.clear();
+        close();
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при очистке истории: " + file.getName(), e);
+        }
+        records = 0;
+        written = 0;
+    }
+
+    long records() {
+        return records;
+    }
+
+    void close() {
+        flush();
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при закрытии истории: " + file.getName(), e);
+        }
+        channel = null;
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+        return channel;
+    }
+}
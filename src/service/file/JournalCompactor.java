@@ -0,0 +1,154 @@
+package service.file;
+import exception.ManagerSaveException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+final class JournalCompactor {
+
+    private final File file;
+    private final TaskJournal journal;
+    private final File sealed;
+    private final File temporary;
+    private final Object compactionLock = new Object();
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private volatile ScheduledExecutorService executor;
+    private volatile SnapshotFormat snapshotFormat = SnapshotFormat.CSV;
+    private volatile long maxJournalSize = Long.MAX_VALUE;
+    private volatile long maxJournalAgeMillis = Long.MAX_VALUE;
+    private volatile long lastSnapshotMillis;
+    private volatile long snapshotCount;
+    private volatile long failureCount;
+
+    JournalCompactor(File file, TaskJournal journal) {
+        this.file = file;
+        this.journal = journal;
+        this.sealed = new File(file.getPath() + ".journal.sealed");
+        this.temporary = new File(file.getPath() + ".tmp");
+    }
+
+    File sealed() {
+        return sealed;
+    }
+
+    void setSnapshotFormat(SnapshotFormat snapshotFormat) {
+        this.snapshotFormat = snapshotFormat;
+    }
+
+    synchronized void start(long maxJournalSize, Duration maxJournalAge) {
+        if (maxJournalSize <= 0 || maxJournalAge.isNegative() || maxJournalAge.isZero()) {
+            throw new IllegalArgumentException("Пороги сжатия журнала должны быть положительными");
+        }
+        stop();
+        this.maxJournalSize = maxJournalSize;
+        this.maxJournalAgeMillis = maxJournalAge.toMillis();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-compactor-" + file.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(maxJournalAgeMillis / 4, 10);
+        executor.scheduleWithFixedDelay(this::checkThresholds, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+    }
+
+    void onAppend() {
+        if (executor != null && journal.size() >= maxJournalSize) {
+            schedule();
+        }
+    }
+
+    void compact() {
+        synchronized (compactionLock) {
+            if (sealed.exists()) {
+                mergeSealed();
+            }
+            if (journal.sealTo(sealed)) {
+                mergeSealed();
+            }
+        }
+    }
+
+    long lastSnapshotMillis() {
+        return lastSnapshotMillis;
+    }
+
+    long snapshotCount() {
+        return snapshotCount;
+    }
+
+    long failureCount() {
+        return failureCount;
+    }
+
+    private void mergeSealed() {
+        long started = System.nanoTime();
+        FileBackedTaskManager scratch = FileBackedTaskManager.scratch(file);
+        scratch.readSnapshot(true);
+        new TaskJournal(sealed).replay(scratch::replay);
+        scratch.writeSnapshot(temporary, snapshotFormat);
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при сохранении снимка: " + temporary.getName(), e);
+        }
+        try {
+            Files.move(temporary.toPath(), file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(sealed.toPath());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при замене снимка: " + file.getName(), e);
+        }
+        lastSnapshotMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        snapshotCount++;
+    }
+
+    private void checkThresholds() {
+        long firstAppend = journal.firstAppendMillis();
+        if (journal.size() >= maxJournalSize
+                || firstAppend != 0 && System.currentTimeMillis() - firstAppend >= maxJournalAgeMillis) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        ScheduledExecutorService current = executor;
+        if (current != null && pending.compareAndSet(false, true)) {
+            try {
+                current.execute(this::compactInBackground);
+            } catch (RejectedExecutionException e) {
+                pending.set(false);
+            }
+        }
+    }
+
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (ManagerSaveException e) {
+            failureCount++;
+        } finally {
+            pending.set(false);
+        }
+    }
+}
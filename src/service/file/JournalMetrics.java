@@ -0,0 +1,64 @@
+package service.file;
+
+public class JournalMetrics {
+
+    private final long journalSize;
+    private final long lastSnapshotMillis;
+    private final long replayMillis;
+    private final long snapshotCount;
+    private final long failureCount;
+    private final long writeCount;
+    private final long syncCount;
+
+    public JournalMetrics(long journalSize, long lastSnapshotMillis, long replayMillis,
+                          long snapshotCount, long failureCount, long writeCount, long syncCount) {
+        this.journalSize = journalSize;
+        this.lastSnapshotMillis = lastSnapshotMillis;
+        this.replayMillis = replayMillis;
+        this.snapshotCount = snapshotCount;
+        this.failureCount = failureCount;
+        this.writeCount = writeCount;
+        this.syncCount = syncCount;
+    }
+
+    public long getJournalSize() {
+        return journalSize;
+    }
+
+    public long getLastSnapshotMillis() {
+        return lastSnapshotMillis;
+    }
+
+    public long getReplayMillis() {
+        return replayMillis;
+    }
+
+    public long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalMetrics{" +
+                "journalSize=" + journalSize +
+                ", lastSnapshotMillis=" + lastSnapshotMillis +
+                ", replayMillis=" + replayMillis +
+                ", snapshotCount=" + snapshotCount +
+                ", failureCount=" + failureCount +
+                ", writeCount=" + writeCount +
+                ", syncCount=" + syncCount +
+                '}';
+    }
+}
@@ -0,0 +1,691 @@
+package service.file;
+import exception.ManagerSaveException;
+import model.Task;
+import util.IntArraySet;
+import util.IntIntMap;
+import util.IntObjectMap;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntFunction;
+
+final class PageFile {
+
+    static final int MAGIC = 0x544B5047;
+    static final int VERSION = 2;
+    static final int PAGE_SIZE = 4096;
+
+    private static final byte FREE = 0;
+    private static final byte SLOTTED = 1;
+    private static final byte OVERFLOW = 2;
+    private static final int HEADER = 8;
+    private static final int SLOT = 4;
+    private static final int SLOT_BITS = 10;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int CHAINED = 0x8000;
+    private static final int PREFIX = 8;
+    private static final int STUB = PREFIX + 8;
+    private static final int MAX_PAGES = 1 << Integer.SIZE - 1 - SLOT_BITS;
+    private static final int MAX_INLINE = PAGE_SIZE / 4;
+    private static final int OVERFLOW_HEADER = 12;
+    private static final int SEARCH_PAGES = 64;
+    private static final int MAX_CACHED_PAGES = 256;
+    private static final int READ_PAGES = 64;
+
+    private final File file;
+    private final FileChannel channel;
+    private final IntIntMap index = new IntIntMap();
+    private final IntObjectMap<ByteBuffer> cache = new IntObjectMap<>();
+    private final IntArraySet dirtyPages = new IntArraySet();
+    private final IntArraySet vacated = new IntArraySet();
+    private final IntArraySet retiredChains = new IntArraySet();
+    private final IntArraySet retiredPages = new IntArraySet();
+    private final RecordBuffer record = new RecordBuffer();
+    private final DataOutputStream output = new DataOutputStream(record);
+    private final byte[] stub = new byte[STUB];
+    private int[] available = new int[16];
+    private int[] freePages = new int[16];
+    private int freePageCount;
+    private int pageCount;
+    private int hint;
+    private byte[] scratch = new byte[256];
+    private BitSet linked;
+    private int version = 1;
+    private long pageWrites;
+
+    private PageFile(File file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    static boolean isPaged(File file) {
+        if (file.length() < PAGE_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            return header.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при чтении файла: " + file.getName(), e);
+        }
+    }
+
+    static PageFile open(File file) {
+        FileChannel channel = openChannel(file, StandardOpenOption.CREATE);
+        PageFile pages = new PageFile(file, channel);
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                pages.writeHeader();
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER + 1);
+                pages.readFully(header, 0);
+                if (header.getInt(0) != MAGIC) {
+                    throw new ManagerSaveException("Файл не является страничным хранилищем: " + file.getName(), null);
+                }
+                if (header.get(4) != VERSION || header.getInt(5) != PAGE_SIZE) {
+                    throw new ManagerSaveException("Неподдерживаемая версия страничного хранилища", null);
+                }
+                if (size % PAGE_SIZE != 0 || size / PAGE_SIZE > MAX_PAGES) {
+                    throw new ManagerSaveException("Файл страниц повреждён: " + file.getName(), null);
+                }
+                pages.pageCount = (int) (size / PAGE_SIZE);
+                pages.ensurePage(pages.pageCount);
+            }
+        } catch (IOException | RuntimeException e) {
+            pages.close();
+            if (e instanceof ManagerSaveException saveException) {
+                throw saveException;
+            }
+            throw new ManagerSaveException("Ошибка при открытии файла страниц: " + file.getName(), e);
+        }
+        return pages;
+    }
+
+    static List<Task> read(File file) {
+        PageFile pages = open(file);
+        try {
+            return pages.load();
+        } finally {
+            pages.close();
+        }
+    }
+
+    static PageFile create(File file, List<? extends List<? extends Task>> groups) {
+        File temporary = new File(file.getPath() + ".tmp");
+        PageFile fresh = new PageFile(file, openChannel(temporary, StandardOpenOption.TRUNCATE_EXISTING));
+        try {
+            fresh.writeHeader();
+            for (List<? extends Task> group : groups) {
+                for (Task task : group) {
+                    if (fresh.cache.size() >= MAX_CACHED_PAGES) {
+                        fresh.writePages();
+                    }
+                    fresh.put(task);
+                }
+            }
+            fresh.writePages();
+            fresh.channel.force(true);
+            Files.move(temporary.toPath(), file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            fresh.close();
+            throw new ManagerSaveException("Ошибка при перезаписи файла страниц: " + file.getName(), e);
+        }
+        return fresh;
+    }
+
+    List<Task> load() {
+        return load(true);
+    }
+
+    List<Task> load(boolean withText) {
+        List<Task> result = new ArrayList<>(Math.max(pageCount, 16));
+        ByteBuffer block = ByteBuffer.allocate(PAGE_SIZE * READ_PAGES);
+        BitSet unslotted = new BitSet(pageCount);
+        IntArraySet stale = new IntArraySet();
+        linked = new BitSet(pageCount);
+        try {
+            for (int first = 1; first < pageCount; first += READ_PAGES) {
+                int count = Math.min(READ_PAGES, pageCount - first);
+                block.clear().limit(count * PAGE_SIZE);
+                readFully(block, (long) first * PAGE_SIZE);
+                for (int i = 0; i < count; i++) {
+                    ByteBuffer page = block.slice(i * PAGE_SIZE, PAGE_SIZE);
+                    int number = first + i;
+                    if (page.get(0) == SLOTTED) {
+                        loadPage(number, page, withText, result, stale);
+                    } else {
+                        unslotted.set(number);
+                    }
+                }
+            }
+            for (int number = unslotted.nextSetBit(0); number >= 0; number = unslotted.nextSetBit(number + 1)) {
+                if (linked.get(number)) {
+                    available[number] = -1;
+                } else {
+                    retire(number);
+                }
+            }
+            for (int i = 0; i < stale.size(); i++) {
+                int location = stale.get(i);
+                int number = location >>> SLOT_BITS;
+                ByteBuffer page = page(number);
+                clearSlot(page, location & SLOT_MASK);
+                dirtyPages.add(number);
+                release(number, page);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при загрузке из файла: " + file.getName(), e);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new ManagerSaveException("Файл страниц повреждён: " + file.getName(), e);
+        } finally {
+            linked = null;
+        }
+        return result;
+    }
+
+    Task read(int id) {
+        int location = index.get(id, -1);
+        if (location < 0) {
+            return null;
+        }
+        int number = location >>> SLOT_BITS;
+        int slot = location & SLOT_MASK;
+        ByteBuffer page = cache.get(number);
+        List<Task> result = new ArrayList<>(1);
+        try {
+            if (page == null) {
+                page = ByteBuffer.allocate(PAGE_SIZE);
+                readFully(page, (long) number * PAGE_SIZE);
+            }
+            BinarySnapshot.readTask(record(page, slot), new byte[256], true, result::add);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при чтении страницы " + number, e);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new ManagerSaveException("Файл страниц повреждён: " + file.getName(), e);
+        }
+        return result.get(0);
+    }
+
+    void flush(IntArraySet ids, IntFunction<Task> lookup) {
+        for (int i = 0; i < ids.size(); i++) {
+            if (cache.size() >= MAX_CACHED_PAGES) {
+                writePages();
+            }
+            int id = ids.get(i);
+            Task task = lookup.apply(id);
+            if (task == null) {
+                delete(id);
+            } else {
+                put(task);
+            }
+        }
+        writePages();
+    }
+
+    long pageWrites() {
+        return pageWrites;
+    }
+
+    int pageCount() {
+        return pageCount;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при закрытии файла страниц: " + file.getName(), e);
+        }
+    }
+
+    private void loadPage(int number, ByteBuffer page, boolean withText, List<Task> result,
+                          IntArraySet stale) throws IOException {
+        int slots = slotCount(page);
+        for (int slot = 0; slot < slots; slot++) {
+            int offset = offset(page, slot);
+            if (offset == 0) {
+                continue;
+            }
+            int id = page.getInt(offset);
+            int recordVersion = page.getInt(offset + Integer.BYTES);
+            version = Math.max(version, recordVersion + 1);
+            int location = number << SLOT_BITS | slot;
+            int previous = index.get(id, -1);
+            if (previous >= 0 && versionAt(previous) >= recordVersion) {
+                stale.add(location);
+                continue;
+            }
+            scratch = BinarySnapshot.readTask(record(page, slot), scratch, withText, result::add);
+            if (previous >= 0) {
+                stale.add(previous);
+                replace(result, result.remove(result.size() - 1));
+            }
+            index.put(id, location);
+        }
+        available[number] = available(page);
+    }
+
+    private int versionAt(int location) throws IOException {
+        ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+        readFully(page, (long) (location >>> SLOT_BITS) * PAGE_SIZE);
+        return page.getInt(offset(page, location & SLOT_MASK) + Integer.BYTES);
+    }
+
+    private static void replace(List<Task> result, Task task) {
+        for (int i = result.size() - 1; i >= 0; i--) {
+            if (result.get(i).getId() == task.getId()) {
+                result.set(i, task);
+                return;
+            }
+        }
+    }
+
+    private ByteBuffer record(ByteBuffer page, int slot) throws IOException {
+        int offset = offset(page, slot) + PREFIX;
+        int length = length(page, slot);
+        if ((length & CHAINED) != 0) {
+            return ByteBuffer.wrap(readChain(page.getInt(offset), page.getInt(offset + Integer.BYTES)));
+        }
+        return page.slice(offset, length - PREFIX);
+    }
+
+    private void put(Task task) {
+        int length = encode(task);
+        byte[] payload = record.bytes();
+        int flag = 0;
+        if (length > MAX_INLINE) {
+            int first = writeChain(payload, PREFIX, length - PREFIX);
+            ByteBuffer.wrap(stub).put(0, payload, 0, PREFIX).putInt(PREFIX, first).putInt(PREFIX + Integer.BYTES, length - PREFIX);
+            payload = stub;
+            length = STUB;
+            flag = CHAINED;
+        }
+        int location = index.get(task.getId(), -1);
+        if (location >= 0) {
+            int number = location >>> SLOT_BITS;
+            int slot = location & SLOT_MASK;
+            ByteBuffer page = page(number);
+            int stored = length(page, slot);
+            int offset = offset(page, slot);
+            int chain = (stored & CHAINED) != 0 ? page.getInt(offset + PREFIX) : 0;
+            stored &= ~CHAINED;
+            if (length <= stored + available(page)) {
+                if (chain > 0) {
+                    retiredChains.add(chain);
+                }
+                if (length <= stored) {
+                    page.put(offset, payload, 0, length);
+                    setSlot(page, slot, offset, length | flag);
+                    setGarbage(page, garbage(page) + stored - length);
+                } else {
+                    clearSlot(page, slot);
+                    place(page, slot, payload, length, flag);
+                }
+                available[number] = available(page);
+                dirtyPages.add(number);
+                return;
+            }
+            vacated.add(location);
+        }
+        int number = findPage(length + SLOT);
+        ByteBuffer page = page(number);
+        int slot = freeSlot(page);
+        place(page, slot, payload, length, flag);
+        available[number] = available(page);
+        dirtyPages.add(number);
+        index.put(task.getId(), number << SLOT_BITS | slot);
+    }
+
+    private void delete(int id) {
+        int location = index.get(id, -1);
+        if (location >= 0) {
+            index.remove(id);
+            vacated.add(location);
+        }
+    }
+
+    private void vacate(int location) {
+        int number = location >>> SLOT_BITS;
+        int slot = location & SLOT_MASK;
+        ByteBuffer page = page(number);
+        if ((length(page, slot) & CHAINED) != 0) {
+            retiredChains.add(page.getInt(offset(page, slot) + PREFIX));
+        }
+        clearSlot(page, slot);
+        dirtyPages.add(number);
+        release(number, page);
+    }
+
+    private void clearSlot(ByteBuffer page, int slot) {
+        setGarbage(page, garbage(page) + (length(page, slot) & ~CHAINED));
+        setSlot(page, slot, 0, 0);
+    }
+
+    private void place(ByteBuffer page, int slot, byte[] payload, int length, int flag) {
+        if (dataStart(page) - HEADER - slotCount(page) * SLOT < length) {
+            compact(page);
+        }
+        int offset = dataStart(page) - length;
+        page.put(offset, payload, 0, length);
+        page.putShort(4, (short) offset);
+        setSlot(page, slot, offset, length | flag);
+    }
+
+    private void compact(ByteBuffer page) {
+        byte[] copy = new byte[PAGE_SIZE];
+        page.get(0, copy);
+        int end = PAGE_SIZE;
+        int slots = slotCount(page);
+        for (int slot = 0; slot < slots; slot++) {
+            int offset = offset(page, slot);
+            if (offset == 0) {
+                continue;
+            }
+            int length = length(page, slot);
+            int size = length & ~CHAINED;
+            end -= size;
+            page.put(end, copy, offset, size);
+            setSlot(page, slot, end, length);
+        }
+        page.putShort(4, (short) end);
+        setGarbage(page, 0);
+    }
+
+    private int freeSlot(ByteBuffer page) {
+        int slots = slotCount(page);
+        for (int slot = 0; slot < slots; slot++) {
+            if (offset(page, slot) == 0) {
+                return slot;
+            }
+        }
+        if (dataStart(page) - HEADER - slots * SLOT < SLOT) {
+            compact(page);
+        }
+        page.putShort(2, (short) (slots + 1));
+        setSlot(page, slots, 0, 0);
+        return slots;
+    }
+
+    private void release(int number, ByteBuffer page) {
+        int slots = slotCount(page);
+        while (slots > 0 && offset(page, slots - 1) == 0) {
+            slots--;
+        }
+        page.putShort(2, (short) slots);
+        if (slots == 0) {
+            page.put(0, FREE);
+            retire(number);
+            return;
+        }
+        available[number] = available(page);
+        if (hint >= pageCount || available[number] > available[hint]) {
+            hint = number;
+        }
+    }
+
+    private int findPage(int needed) {
+        for (int i = 0; i < SEARCH_PAGES && i < pageCount; i++) {
+            int number = (hint + i) % pageCount;
+            if (available[number] >= needed) {
+                hint = number;
+                return number;
+            }
+        }
+        hint = allocatePage(SLOTTED);
+        return hint;
+    }
+
+    private int allocatePage(byte type) {
+        if (freePageCount == 0 && pageCount >= MAX_PAGES) {
+            throw new ManagerSaveException("Файл страниц заполнен: " + file.getName(), null);
+        }
+        int number = freePageCount > 0 ? freePages[--freePageCount] : pageCount++;
+        ensurePage(pageCount);
+        ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+        page.put(0, type);
+        if (type == SLOTTED) {
+            page.putShort(4, (short) PAGE_SIZE);
+            available[number] = PAGE_SIZE - HEADER;
+        } else {
+            available[number] = -1;
+        }
+        cache.put(number, page);
+        dirtyPages.add(number);
+        return number;
+    }
+
+    private void retire(int number) {
+        available[number] = -1;
+        retiredPages.add(number);
+    }
+
+    private void releasePage(int number) {
+        available[number] = -1;
+        if (freePageCount == freePages.length) {
+            freePages = Arrays.copyOf(freePages, freePageCount * 2);
+        }
+        freePages[freePageCount++] = number;
+    }
+
+    private int writeChain(byte[] bytes, int from, int length) {
+        int first = -1;
+        ByteBuffer previous = null;
+        int end = from + length;
+        for (int position = from; position < end; ) {
+            int number = allocatePage(OVERFLOW);
+            ByteBuffer page = cache.get(number);
+            int count = Math.min(end - position, PAGE_SIZE - OVERFLOW_HEADER);
+            page.putInt(4, -1);
+            page.putInt(8, count);
+            page.put(OVERFLOW_HEADER, bytes, position, count);
+            if (previous == null) {
+                first = number;
+            } else {
+                previous.putInt(4, number);
+            }
+            previous = page;
+            position += count;
+        }
+        return first;
+    }
+
+    private byte[] readChain(int first, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+        int position = 0;
+        for (int number = first; position < length; ) {
+            if (number <= 0 || number >= pageCount) {
+                throw new ManagerSaveException("Файл страниц повреждён: цепочка ссылается на " + number, null);
+            }
+            if (linked != null) {
+                linked.set(number);
+            }
+            ByteBuffer cached = cache.get(number);
+            if (cached != null) {
+                page = cached;
+            } else {
+                page.clear();
+                readFully(page, (long) number * PAGE_SIZE);
+            }
+            int count = page.getInt(8);
+            page.get(OVERFLOW_HEADER, bytes, position, count);
+            position += count;
+            number = page.getInt(4);
+        }
+        return bytes;
+    }
+
+    private void freeChain(int first) {
+        for (int number = first; number > 0; ) {
+            ByteBuffer page = page(number);
+            int next = page.getInt(4);
+            page.put(0, FREE);
+            dirtyPages.add(number);
+            retire(number);
+            number = next;
+        }
+    }
+
+    private ByteBuffer page(int number) {
+        ByteBuffer page = cache.get(number);
+        if (page == null) {
+            page = ByteBuffer.allocate(PAGE_SIZE);
+            try {
+                readFully(page, (long) number * PAGE_SIZE);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при чтении страницы " + number, e);
+            }
+            cache.put(number, page);
+        }
+        return page;
+    }
+
+    private void writePages() {
+        boolean vacating = !vacated.isEmpty() || !retiredChains.isEmpty() || !retiredPages.isEmpty();
+        try {
+            if (writeDirty(true)) {
+                channel.force(true);
+            }
+            writeDirty(false);
+            if (vacating) {
+                channel.force(true);
+                vacated.forEach(this::vacate);
+                vacated.clear();
+                retiredChains.forEach(this::freeChain);
+                retiredChains.clear();
+                writeDirty(false);
+                channel.force(true);
+                retiredPages.forEach(this::releasePage);
+                retiredPages.clear();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при сохранении в файл", e);
+        }
+        cache.clear();
+        version++;
+    }
+
+    private boolean writeDirty(boolean overflowOnly) throws IOException {
+        int[] numbers = dirtyPages.toArray();
+        Arrays.sort(numbers);
+        boolean written = false;
+        for (int number : numbers) {
+            ByteBuffer page = cache.get(number);
+            if (overflowOnly && page.get(0) != OVERFLOW) {
+                continue;
+            }
+            page.clear();
+            long position = (long) number * PAGE_SIZE;
+            while (page.hasRemaining()) {
+                position += channel.write(page, position);
+            }
+            pageWrites++;
+            dirtyPages.remove(number);
+            written = true;
+        }
+        return written;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE);
+        header.putInt(0, MAGIC).put(4, (byte) VERSION).putInt(5, PAGE_SIZE);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        pageWrites++;
+        pageCount = 1;
+        ensurePage(pageCount);
+        available[0] = -1;
+    }
+
+    private void ensurePage(int count) {
+        if (count > available.length) {
+            available = Arrays.copyOf(available, Math.max(count, available.length * 2));
+        }
+    }
+
+    private int encode(Task task) {
+        record.reset();
+        try {
+            output.writeInt(task.getId());
+            output.writeInt(version);
+            BinarySnapshot.writeTask(output, task);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при кодировании задачи " + task.getId(), e);
+        }
+        return record.size();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new ManagerSaveException("Файл страниц обрывается на позиции " + position, null);
+            }
+            position += read;
+        }
+    }
+
+    private static FileChannel openChannel(File file, StandardOpenOption mode) {
+        try {
+            return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, mode,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при открытии файла страниц: " + file.getName(), e);
+        }
+    }
+
+    private static int available(ByteBuffer page) {
+        return dataStart(page) - HEADER - slotCount(page) * SLOT + garbage(page);
+    }
+
+    private static int slotCount(ByteBuffer page) {
+        return page.getShort(2) & 0xFFFF;
+    }
+
+    private static int dataStart(ByteBuffer page) {
+        return page.getShort(4) & 0xFFFF;
+    }
+
+    private static int garbage(ByteBuffer page) {
+        return page.getShort(6) & 0xFFFF;
+    }
+
+    private static void setGarbage(ByteBuffer page, int garbage) {
+        page.putShort(6, (short) garbage);
+    }
+
+    private static int offset(ByteBuffer page, int slot) {
+        return page.getShort(HEADER + slot * SLOT) & 0xFFFF;
+    }
+
+    private static int length(ByteBuffer page, int slot) {
+        return page.getShort(HEADER + slot * SLOT + 2) & 0xFFFF;
+    }
+
+    private static void setSlot(ByteBuffer page, int slot, int offset, int length) {
+        page.putShort(HEADER + slot * SLOT, (short) offset);
+        page.putShort(HEADER + slot * SLOT + 2, (short) length);
+    }
+
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+
+        byte[] bytes() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package service.file;
+import model.Task;
+import service.managers.HistoryManager;
+import service.managers.HistoryPage;
+import java.util.List;
+import java.util.function.IntFunction;
+
+final class PersistentHistoryManager implements HistoryManager {
+
+    private static final long MIN_RECORDS = 64 * 1024;
+
+    private final HistoryManager delegate;
+    private final HistoryLog log;
+    private long limit = MIN_RECORDS;
+
+    PersistentHistoryManager(HistoryManager delegate, HistoryLog log) {
+        this.delegate = delegate;
+        this.log = log;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        if (task == null) {
+            return;
+        }
+        delegate.add(task);
+        log.append(task.getId());
+        if (log.records() >= limit) {
+            compact();
+        }
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        delegate.remove(id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public synchronized HistoryPage getHistoryAfter(long after, int limit) {
+        return delegate.getHistoryAfter(after, limit);
+    }
+
+    synchronized void restore(IntFunction<Task> lookup) {
+        for (int taskId : log.read()) {
+            Task task = lookup.apply(taskId);
+            if (task != null) {
+                delegate.add(task);
+            }
+        }
+        if (log.records() != delegate.getHistory().size()) {
+            compact();
+        }
+    }
+
+    synchronized void clear() {
+        log.clear();
+    }
+
+    synchronized void close() {
+        log.close();
+    }
+
+    private void compact() {
+        List<Task> history = delegate.getHistory();
+        int[] ids = new int[history.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = history.get(i).getId();
+        }
+        log.rewrite(ids);
+        limit = Math.max(MIN_RECORDS, 2L * ids.length);
+    }
+}
@@ -0,0 +1,6 @@
+package service.file;
+
+public enum SnapshotFormat {
+    CSV,
+    BINARY
+}
@@ -0,0 +1,79 @@
+package service.file;
+import exception.ManagerSaveException;
+import model.Task;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+final class SnapshotLoader {
+
+    private static final long MAP_THRESHOLD = 1024 * 1024;
+    private static final int CHUNK_SIZE = 512 * 1024;
+
+    private SnapshotLoader() {
+    }
+
+    static List<List<Task>> load(File file) {
+        ByteBuffer buffer = open(file);
+        if (buffer.remaining() >= Integer.BYTES && buffer.getInt(0) == PageFile.MAGIC) {
+            return List.of(PageFile.read(file));
+        }
+        if (buffer.remaining() >= Integer.BYTES && buffer.getInt(0) == BinarySnapshot.MAGIC) {
+            return BinarySnapshot.split(buffer, CHUNK_SIZE).parallelStream()
+                    .map(chunk -> BinarySnapshot.read(buffer, chunk))
+                    .toList();
+        }
+        return CsvSnapshot.split(buffer, CHUNK_SIZE).parallelStream()
+                .map(chunk -> CsvSnapshot.read(buffer, chunk))
+                .toList();
+    }
+
+    private static ByteBuffer open(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new ManagerSaveException("Снимок слишком велик для загрузки: " + file.getName(), null);
+            }
+            if (size >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            return buffer.flip();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при загрузке из файла: " + file.getName(), e);
+        }
+    }
+
+    static final class Chunk {
+
+        private final int from;
+        private final int to;
+        private final int count;
+
+        Chunk(int from, int to, int count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        int from() {
+            return from;
+        }
+
+        int to() {
+            return to;
+        }
+
+        int count() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package service.file;
+
+public enum SyncPolicy {
+    EVERY_OP,
+    INTERVAL,
+    OS
+}
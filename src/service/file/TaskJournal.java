@@ -0,0 +1,264 @@
+package service.file;
+import exception.ManagerSaveException;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+class TaskJournal {
+
+    private static final long DEFAULT_MAX_PENDING_SIZE = 1024 * 1024;
+
+    private final File file;
+    private final Object ioLock = new Object();
+    private FileOutputStream stream;
+    private OutputStream writer;
+    private List<byte[]> pending = new ArrayList<>();
+    private long pendingSize;
+    private long size;
+    private long firstAppendMillis;
+    private long appended;
+    private long written;
+    private long synced;
+    private long batches;
+    private long syncs;
+    private volatile SyncPolicy policy = SyncPolicy.OS;
+    private volatile long maxPendingSize = DEFAULT_MAX_PENDING_SIZE;
+    private volatile ScheduledExecutorService syncer;
+
+    TaskJournal(File file) {
+        this.file = file;
+        this.size = file.length();
+        this.firstAppendMillis = size > 0 ? file.lastModified() : 0;
+    }
+
+    void configure(SyncPolicy policy, Duration interval, long maxPendingSize) {
+        if (maxPendingSize <= 0) {
+            throw new IllegalArgumentException("Размер буфера журнала должен быть положительным");
+        }
+        if (policy == SyncPolicy.INTERVAL && (interval.isNegative() || interval.isZero())) {
+            throw new IllegalArgumentException("Интервал синхронизации журнала должен быть положительным");
+        }
+        stopSyncer();
+        this.policy = policy;
+        this.maxPendingSize = maxPendingSize;
+        if (policy == SyncPolicy.INTERVAL) {
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-sync-" + file.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = interval.toMillis();
+            executor.scheduleWithFixedDelay(this::syncInBackground, period, period, TimeUnit.MILLISECONDS);
+            syncer = executor;
+        }
+    }
+
+    long append(String record) {
+        return append(List.of(record));
+    }
+
+    long append(List<String> records) {
+        List<byte[]> encoded = new ArrayList<>(records.size());
+        for (String record : records) {
+            encoded.add(record.getBytes(StandardCharsets.UTF_8));
+        }
+        return appendEncoded(encoded);
+    }
+
+    void await(long ticket) {
+        SyncPolicy current = policy;
+        if (current == SyncPolicy.INTERVAL && pendingSize() < maxPendingSize) {
+            return;
+        }
+        boolean force = current == SyncPolicy.EVERY_OP;
+        synchronized (ioLock) {
+            if ((force ? syncedUpTo() : writtenUpTo()) < ticket) {
+                drain(force);
+            }
+        }
+    }
+
+    void replay(Consumer<CsvReader> action) {
+        if (!file.exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            CsvReader reader = new CsvReader(channel);
+            while (reader.next()) {
+                action.accept(reader);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при чтении журнала: " + file.getName(), e);
+        }
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    synchronized long firstAppendMillis() {
+        return firstAppendMillis;
+    }
+
+    synchronized long batches() {
+        return batches;
+    }
+
+    synchronized long syncs() {
+        return syncs;
+    }
+
+    boolean sealTo(File sealed) {
+        synchronized (ioLock) {
+            if (size() == 0) {
+                return false;
+            }
+            drain(true);
+            closeWriter();
+            try {
+                Files.move(file.toPath(), sealed.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при ротации журнала: " + file.getName(), e);
+            }
+            synchronized (this) {
+                size = pendingSize;
+                firstAppendMillis = pendingSize > 0 ? System.currentTimeMillis() : 0;
+            }
+            return true;
+        }
+    }
+
+    void close() {
+        stopSyncer();
+        synchronized (ioLock) {
+            drain(policy != SyncPolicy.OS);
+            closeWriter();
+        }
+    }
+
+    private void drain(boolean force) {
+        List<byte[]> batch;
+        long ticket;
+        long batchSize;
+        synchronized (this) {
+            batch = pending;
+            batchSize = pendingSize;
+            ticket = appended;
+            pending = new ArrayList<>();
+            pendingSize = 0;
+        }
+        try {
+            if (!batch.isEmpty()) {
+                if (writer == null) {
+                    stream = new FileOutputStream(file, true);
+                    writer = new BufferedOutputStream(stream);
+                }
+                for (byte[] record : batch) {
+                    writer.write(record);
+                    writer.write('\n');
+                }
+                writer.flush();
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                batch.addAll(pending);
+                pending = batch;
+                pendingSize += batchSize;
+            }
+            closeWriter();
+            throw new ManagerSaveException("Ошибка при записи в журнал: " + file.getName(), e);
+        }
+        boolean syncNeeded = force && writer != null && syncedUpTo() < ticket;
+        if (syncNeeded) {
+            try {
+                stream.getChannel().force(false);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при синхронизации журнала: " + file.getName(), e);
+            }
+        }
+        synchronized (this) {
+            written = ticket;
+            if (!batch.isEmpty()) {
+                batches++;
+            }
+            if (syncNeeded) {
+                synced = ticket;
+                syncs++;
+            }
+        }
+    }
+
+    private synchronized long appendEncoded(List<byte[]> records) {
+        for (byte[] record : records) {
+            pending.add(record);
+            pendingSize += record.length + 1;
+            size += record.length + 1;
+        }
+        if (firstAppendMillis == 0 && !records.isEmpty()) {
+            firstAppendMillis = System.currentTimeMillis();
+        }
+        appended += records.size();
+        return appended;
+    }
+
+    private void syncInBackground() {
+        try {
+            synchronized (ioLock) {
+                drain(true);
+            }
+        } catch (ManagerSaveException ignored) {
+        }
+    }
+
+    private synchronized long pendingSize() {
+        return pendingSize;
+    }
+
+    private synchronized long writtenUpTo() {
+        return written;
+    }
+
+    private synchronized long syncedUpTo() {
+        return synced;
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка при закрытии журнала: " + file.getName(), e);
+            } finally {
+                writer = null;
+                stream = null;
+            }
+        }
+    }
+
+    private void stopSyncer() {
+        ScheduledExecutorService executor = syncer;
+        if (executor != null) {
+            syncer = null;
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
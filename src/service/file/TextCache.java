@@ -0,0 +1,36 @@
+package service.file;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class TextCache {
+
+    private final Map<Integer, String[]> entries;
+
+    TextCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized String[] get(int id) {
+        return entries.get(id);
+    }
+
+    synchronized void put(int id, String[] text) {
+        entries.put(id, text);
+    }
+
+    synchronized void remove(int id) {
+        entries.remove(id);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
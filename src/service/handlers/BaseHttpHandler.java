@@ -1,13 +1,27 @@
 package service.handlers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import model.enums.Status;
+import model.enums.TaskType;
+import service.managers.SessionHistoryManager;
+import service.managers.TaskQuery;
 import java.io.IOException;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public abstract class BaseHttpHandler implements HttpHandler {
 
+    protected static final String SESSION_HEADER = "X-Session-Id";
+    protected static final String CURSOR_HEADER = "X-History-Cursor";
+
     private static final String NOT_FOUND = "Not Found";
     private static final String BAD_REQUEST = "Bad Request";
+    private static final List<String> FILTER_PARAMS = List.of("status", "epicId", "from", "to");
 
     protected void sendText(final HttpExchange exchange, final String text) throws IOException {
         byte[] resp = text.getBytes(StandardCharsets.UTF_8);
@@ -18,6 +32,15 @@ public abstract class BaseHttpHandler implements HttpHandler {
         System.out.println("Successfully sent text");
     }
 
+    protected void sendCreated(final HttpExchange exchange, final String text) throws IOException {
+        byte[] resp = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(201, resp.length);
+        exchange.getResponseBody().write(resp);
+        exchange.close();
+        System.out.println("Successfully created");
+    }
+
     protected void sendInternalServerError(final HttpExchange exchange, final String errorMessage) throws IOException {
         byte[] resp = errorMessage.getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
@@ -53,4 +76,89 @@ public abstract class BaseHttpHandler implements HttpHandler {
         }
     }
 
+    protected String parseSession(final HttpExchange exchange) {
+        String session = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        return session == null || session.isBlank() ? null : session.trim();
+    }
+
+    protected void recordView(final HttpExchange exchange, final SessionHistoryManager sessions, final int id) {
+        String session = parseSession(exchange);
+        if (sessions != null && session != null && session.length() <= SessionHistoryManager.MAX_SESSION_LENGTH) {
+            sessions.add(session, id);
+        }
+    }
+
+    protected Map<String, String> parseQuery(final HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isBlank()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    protected boolean hasFilter(final Map<String, String> params) {
+        return FILTER_PARAMS.stream().anyMatch(params::containsKey);
+    }
+
+    protected boolean hasPaging(final Map<String, String> params) {
+        return params.containsKey("limit") || params.containsKey("after");
+    }
+
+    protected Integer parseLimit(final Map<String, String> params) {
+        if (!params.containsKey("limit")) {
+            return Integer.MAX_VALUE;
+        }
+        Integer limit = parseInt(params.get("limit"));
+        return limit != null && limit > 0 ? limit : null;
+    }
+
+    protected Integer parseAfter(final Map<String, String> params) {
+        if (!params.containsKey("after")) {
+            return 0;
+        }
+        Integer after = parseInt(params.get("after"));
+        return after != null && after >= 0 ? after : null;
+    }
+
+    protected Long parseCursor(final Map<String, String> params) {
+        if (!params.containsKey("after")) {
+            return 0L;
+        }
+        try {
+            long after = Long.parseLong(params.get("after"));
+            return after >= 0 ? after : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    protected TaskQuery parseTaskQuery(final Map<String, String> params, final TaskType type) {
+        try {
+            Status status = params.containsKey("status") ? Status.valueOf(params.get("status").toUpperCase()) : null;
+            Integer epicId = null;
+            if (params.containsKey("epicId")) {
+                if (type != TaskType.SUBTASK) {
+                    return null;
+                }
+                epicId = parseInt(params.get("epicId"));
+                if (epicId == null) {
+                    return null;
+                }
+            }
+            LocalDateTime from = params.containsKey("from") ? LocalDateTime.parse(params.get("from")) : null;
+            LocalDateTime to = params.containsKey("to") ? LocalDateTime.parse(params.get("to")) : null;
+            return new TaskQuery(type, status, epicId, from, to);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
 }
@@ -2,19 +2,29 @@ package service.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import model.Epic;
+import model.enums.TaskType;
 import service.Managers;
+import service.managers.SessionHistoryManager;
 import service.managers.TaskManager;
+import service.managers.TaskQuery;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class EpicHandler extends BaseHttpHandler {
 
     private final TaskManager taskManager;
+    private final SessionHistoryManager sessions;
     private final Gson gson;
 
     public EpicHandler(TaskManager taskManager) {
+        this(taskManager, null);
+    }
+
+    public EpicHandler(TaskManager taskManager, SessionHistoryManager sessions) {
         this.taskManager = taskManager;
+        this.sessions = sessions;
         gson = Managers.getGson();
     }
 
@@ -38,11 +48,30 @@ public class EpicHandler extends BaseHttpHandler {
                             sendNotFound(exchange);
                         }
                     } else if (Pattern.matches("/api/epics", path)) {
-                        sendText(exchange, gson.toJson(taskManager.getAllEpics()));
+                        Map<String, String> params = parseQuery(exchange);
+                        if (hasFilter(params)) {
+                            TaskQuery query = parseTaskQuery(params, TaskType.EPIC);
+                            if (query == null || hasPaging(params)) {
+                                sendBadRequest(exchange);
+                                return;
+                            }
+                            sendText(exchange, gson.toJson(taskManager.findTasks(query)));
+                        } else if (hasPaging(params)) {
+                            Integer after = parseAfter(params);
+                            Integer limit = parseLimit(params);
+                            if (after == null || limit == null) {
+                                sendBadRequest(exchange);
+                                return;
+                            }
+                            sendText(exchange, gson.toJson(taskManager.getEpicsAfter(after, limit)));
+                        } else {
+                            sendText(exchange, gson.toJson(taskManager.getAllEpics()));
+                        }
                     } else if (Pattern.matches("/api/epics/\\d+", path)) {
                         int id = parseInt(path.replaceFirst("/api/epics/", ""));
                         Epic epic = taskManager.getEpic(id);
                         if (epic != null) {
+                            recordView(exchange, sessions, id);
                             sendText(exchange, gson.toJson(epic));
                         } else {
                             sendNotFound(exchange);
@@ -2,16 +2,25 @@ package service.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import service.Managers;
+import service.managers.HistoryPage;
+import service.managers.SessionHistoryManager;
 import service.managers.TaskManager;
 import java.io.IOException;
+import java.util.Map;
 
 public class HistoryHandler extends BaseHttpHandler {
 
     private final TaskManager taskManager;
+    private final SessionHistoryManager sessions;
     private final Gson gson;
 
     public HistoryHandler(TaskManager taskManager) {
+        this(taskManager, null);
+    }
+
+    public HistoryHandler(TaskManager taskManager, SessionHistoryManager sessions) {
         this.taskManager = taskManager;
+        this.sessions = sessions;
         gson = Managers.getGson();
     }
 
@@ -23,6 +32,28 @@ public class HistoryHandler extends BaseHttpHandler {
                 case "GET":
                     String path = exchange.getRequestURI().getPath();
                     if (path.equals("/api/history")) {
+                        Map<String, String> params = parseQuery(exchange);
+                        String session = parseSession(exchange);
+                        if (session != null && sessions != null) {
+                            Long after = parseCursor(params);
+                            Integer limit = parseLimit(params);
+                            if (after == null || limit == null || session.length() > SessionHistoryManager.MAX_SESSION_LENGTH) {
+                                sendBadRequest(exchange);
+                                return;
+                            }
+                            sendPage(exchange, sessions.getHistoryAfter(session, after, limit, taskManager::findTask));
+                            return;
+                        }
+                        if (hasPaging(params)) {
+                            Long after = parseCursor(params);
+                            Integer limit = parseLimit(params);
+                            if (after == null || limit == null) {
+                                sendBadRequest(exchange);
+                                return;
+                            }
+                            sendPage(exchange, taskManager.getHistoryAfter(after, limit));
+                            return;
+                        }
                         String response = gson.toJson(taskManager.getHistory());
                         sendText(exchange,response);
                     } else {
@@ -38,4 +69,9 @@ public class HistoryHandler extends BaseHttpHandler {
             sendInternalServerError(exchange, response);
         }
     }
+
+    private void sendPage(HttpExchange exchange, HistoryPage page) throws IOException {
+        exchange.getResponseHeaders().add(CURSOR_HEADER, Long.toString(page.getCursor()));
+        sendText(exchange, gson.toJson(page.getTasks()));
+    }
 }
@@ -1,12 +1,16 @@
 package service.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import model.Epic;
 import model.Task;
 import service.Managers;
 import service.managers.TaskManager;
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class PrioritizedHandler extends BaseHttpHandler {
 
@@ -25,6 +29,16 @@ public class PrioritizedHandler extends BaseHttpHandler {
             String path = exchange.getRequestURI().getPath();
             if ("GET".equals(request)) {
                 if ("/api/prioritized".equals(path)) {
+                    Map<String, String> params = parseQuery(exchange);
+                    if (!params.isEmpty()) {
+                        List<Task> window = findWindow(params);
+                        if (window == null) {
+                            sendBadRequest(exchange);
+                            return;
+                        }
+                        sendText(exchange, gson.toJson(window));
+                        return;
+                    }
                     List<Task> prioritizedTasks = taskManager.getPriorityTasks();
                     String response = gson.toJson(prioritizedTasks != null ? prioritizedTasks : new ArrayList<>());
                     sendText(exchange, response);
@@ -38,4 +52,35 @@ public class PrioritizedHandler extends BaseHttpHandler {
             sendInternalServerError(exchange, e.getMessage());
         }
     }
+
+    private List<Task> findWindow(Map<String, String> params) {
+        Integer limit = parseLimit(params);
+        if (limit == null) {
+            return null;
+        }
+        try {
+            LocalDateTime from = params.containsKey("from") ? LocalDateTime.parse(params.get("from")) : null;
+            LocalDateTime to = params.containsKey("to") ? LocalDateTime.parse(params.get("to")) : null;
+            if (params.containsKey("after")) {
+                Integer after = parseAfter(params);
+                if (after == null || from != null || to != null) {
+                    return null;
+                }
+                LocalDateTime afterStart;
+                if (params.containsKey("afterStart")) {
+                    afterStart = LocalDateTime.parse(params.get("afterStart"));
+                } else {
+                    Task cursor = taskManager.findTask(after);
+                    if (cursor == null || cursor instanceof Epic) {
+                        return null;
+                    }
+                    afterStart = cursor.getStartTime();
+                }
+                return taskManager.getPriorityTasksAfter(afterStart, after, limit);
+            }
+            return taskManager.getPriorityTasks(from, to, limit);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 }
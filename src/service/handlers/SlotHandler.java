@@ -0,0 +1,71 @@
+package service.handlers;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import model.TimeSlot;
+import service.Managers;
+import service.managers.TaskManager;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+public class SlotHandler extends BaseHttpHandler {
+
+    private final TaskManager taskManager;
+    private final Gson gson;
+
+    public SlotHandler(TaskManager taskManager) {
+        this.taskManager = taskManager;
+        gson = Managers.getGson();
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String request = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            if ("GET".equals(request)) {
+                if ("/api/slots".equals(path)) {
+                    List<TimeSlot> slots = findSlots(parseQuery(exchange));
+                    if (slots == null) {
+                        sendBadRequest(exchange);
+                        return;
+                    }
+                    sendText(exchange, gson.toJson(slots));
+                    return;
+                }
+                sendNotFound(exchange);
+                return;
+            }
+            exchange.sendResponseHeaders(405, 0);
+        } catch (Exception e) {
+            sendInternalServerError(exchange, e.getMessage());
+        }
+    }
+
+    private List<TimeSlot> findSlots(Map<String, String> params) {
+        int count = 1;
+        if (params.containsKey("count")) {
+            Integer parsedCount = parseInt(params.get("count"));
+            if (parsedCount == null || parsedCount <= 0) {
+                return null;
+            }
+            count = parsedCount;
+        }
+        try {
+            if (!params.containsKey("duration")) {
+                return null;
+            }
+            Duration duration = Duration.parse(params.get("duration"));
+            if (duration.isNegative() || duration.isZero()) {
+                return null;
+            }
+            LocalDateTime from = params.containsKey("from") ? LocalDateTime.parse(params.get("from")) : LocalDateTime.now();
+            return taskManager.findFreeSlots(from, duration, count);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -2,20 +2,30 @@ package service.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import model.SubTask;
+import model.enums.TaskType;
 import service.Managers;
+import service.managers.SessionHistoryManager;
 import service.managers.TaskManager;
+import service.managers.TaskQuery;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class SubTaskHandler extends BaseHttpHandler {
 
     private final TaskManager taskManager;
+    private final SessionHistoryManager sessions;
     private final Gson gson;
 
     public SubTaskHandler(TaskManager taskManager) {
+        this(taskManager, null);
+    }
+
+    public SubTaskHandler(TaskManager taskManager, SessionHistoryManager sessions) {
         this.taskManager = taskManager;
+        this.sessions = sessions;
         gson = Managers.getGson();
     }
 
@@ -29,6 +39,26 @@ public class SubTaskHandler extends BaseHttpHandler {
             switch (request) {
                 case "GET":
                     if (Pattern.matches("/api/subtasks", path)) {
+                        Map<String, String> params = parseQuery(exchange);
+                        if (hasFilter(params)) {
+                            TaskQuery query = parseTaskQuery(params, TaskType.SUBTASK);
+                            if (query == null || hasPaging(params)) {
+                                sendBadRequest(exchange);
+                                return;
+                            }
+                            sendText(exchange, gson.toJson(taskManager.findTasks(query)));
+                            return;
+                        }
+                        if (hasPaging(params)) {
+                            Integer after = parseAfter(params);
+                            Integer limit = parseLimit(params);
+                            if (after == null || limit == null) {
+                                sendBadRequest(exchange);
+                                return;
+                            }
+                            sendText(exchange, gson.toJson(taskManager.getSubtasksAfter(after, limit)));
+                            return;
+                        }
                         String response = gson.toJson(taskManager.getAllSubtasks());
                         sendText(exchange, response);
                         return;
@@ -37,6 +67,7 @@ public class SubTaskHandler extends BaseHttpHandler {
                         int id = parseInt(repath);
                         if (taskManager.getSubtask(id) != null) {
                             String response = gson.toJson(taskManager.getSubtask(id));
+                            recordView(exchange, sessions, id);
                             sendText(exchange, response);
                             return;
                         } else {
@@ -1,21 +1,38 @@
 package service.handlers;
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.sun.net.httpserver.HttpExchange;
+import model.Epic;
+import model.SubTask;
 import model.Task;
+import model.enums.TaskType;
 import service.Managers;
+import service.managers.SessionHistoryManager;
 import service.managers.TaskManager;
+import service.managers.TaskQuery;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class TaskHandler extends BaseHttpHandler {
 
     private final TaskManager taskManager;
+    private final SessionHistoryManager sessions;
     private final Gson gson;
 
     public TaskHandler(TaskManager taskManager) {
+        this(taskManager, null);
+    }
+
+    public TaskHandler(TaskManager taskManager, SessionHistoryManager sessions) {
         this.taskManager = taskManager;
+        this.sessions = sessions;
         gson = Managers.getGson();
     }
 
@@ -29,6 +46,26 @@ public class TaskHandler extends BaseHttpHandler {
             switch (request) {
                 case "GET":
                     if (Pattern.matches("/api/tasks$", path)) {
+                        Map<String, String> params = parseQuery(exchange);
+                        if (hasFilter(params)) {
+                            TaskQuery query = parseTaskQuery(params, TaskType.TASK);
+                            if (query == null || hasPaging(params)) {
+                                sendBadRequest(exchange);
+                                return;
+                            }
+                            sendText(exchange, gson.toJson(taskManager.findTasks(query)));
+                            return;
+                        }
+                        if (hasPaging(params)) {
+                            Integer after = parseAfter(params);
+                            Integer limit = parseLimit(params);
+                            if (after == null || limit == null) {
+                                sendBadRequest(exchange);
+                                return;
+                            }
+                            sendText(exchange, gson.toJson(taskManager.getTasksAfter(after, limit)));
+                            return;
+                        }
                         String response = gson.toJson(taskManager.getAllTasks());
                         sendText(exchange, response);
                         return;
@@ -37,6 +74,7 @@ public class TaskHandler extends BaseHttpHandler {
                         int id = parseInt(repath);
                         if (taskManager.getTask(id) != null) {
                             String response = gson.toJson(taskManager.getTask(id));
+                            recordView(exchange, sessions, id);
                             sendText(exchange, response);
                             return;
                         } else {
@@ -66,6 +104,19 @@ public class TaskHandler extends BaseHttpHandler {
                         taskManager.addTask(task);
                         exchange.sendResponseHeaders(201,0);
                         return;
+                    } else if (Pattern.matches("/api/tasks/bulk(/update)?$", path)) {
+                        List<Task> batch = parseBatch(body);
+                        if (batch == null) {
+                            sendBadRequest(exchange);
+                            return;
+                        }
+                        if (path.endsWith("/update")) {
+                            taskManager.updateAll(batch);
+                        } else {
+                            taskManager.addAll(batch);
+                        }
+                        sendCreated(exchange, gson.toJson(batch));
+                        return;
                     } else if (Pattern.matches("/api/tasks/\\d+$", path)) {
                         String repath = path.replaceFirst("/api/tasks/", "");
                         int id = parseInt(repath);
@@ -115,4 +166,36 @@ public class TaskHandler extends BaseHttpHandler {
             sendInternalServerError(exchange,response);
         }
     }
+
+    private List<Task> parseBatch(String body) {
+        JsonElement root = JsonParser.parseString(body);
+        if (!root.isJsonArray()) {
+            return null;
+        }
+        List<Task> batch = new ArrayList<>(root.getAsJsonArray().size());
+        for (JsonElement element : root.getAsJsonArray()) {
+            Class<? extends Task> type = element.isJsonObject() ? batchType(element.getAsJsonObject()) : null;
+            if (type == null) {
+                return null;
+            }
+            batch.add(gson.fromJson(element, type));
+        }
+        return batch;
+    }
+
+    private Class<? extends Task> batchType(JsonObject element) {
+        JsonElement type = element.get("type");
+        if (type == null || type.isJsonNull()) {
+            return element.has("epicId") ? SubTask.class : Task.class;
+        }
+        try {
+            return switch (TaskType.valueOf(type.getAsString().toUpperCase())) {
+                case TASK -> Task.class;
+                case SUBTASK -> SubTask.class;
+                case EPIC -> Epic.class;
+            };
+        } catch (IllegalArgumentException | IllegalStateException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package service.managers;
+import exception.ValidationException;
+import model.Epic;
+import model.Task;
+import util.IntervalTree;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+final class BatchValidator {
+
+    private BatchValidator() {
+    }
+
+    static void checkOverlaps(List<? extends Task> batch, IntervalTree schedule) {
+        List<Task> scheduled = new ArrayList<>();
+        for (Task task : batch) {
+            if (!(task instanceof Epic) && task.getStartTime() != null && task.getDuration() != null) {
+                scheduled.add(task);
+            }
+        }
+        scheduled.sort(Comparator.comparing(Task::getStartTime));
+        LocalDateTime latestEnd = null;
+        for (Task task : scheduled) {
+            LocalDateTime startTime = task.getStartTime();
+            LocalDateTime endTime = task.getEndTime();
+            if (latestEnd != null && startTime.isBefore(latestEnd) && endTime.isAfter(startTime)) {
+                throw new ValidationException("Task " + task.getName() + " overlaps with another task in the batch.");
+            }
+            if (schedule.overlaps(startTime, endTime, Integer.MIN_VALUE)) {
+                throw new ValidationException("Task " + task.getName() + " overlaps with an existing task.");
+            }
+            if (latestEnd == null || endTime.isAfter(latestEnd)) {
+                latestEnd = endTime;
+            }
+        }
+    }
+
+    static List<Task> unschedule(List<Task> saved, IntervalTree schedule) {
+        List<Task> unscheduled = new ArrayList<>();
+        for (Task task : saved) {
+            if (!(task instanceof Epic) && schedule.contains(task.getId())) {
+                schedule.remove(task.getId());
+                unscheduled.add(task);
+            }
+        }
+        return unscheduled;
+    }
+
+    static void reschedule(List<Task> unscheduled, IntervalTree schedule) {
+        for (Task task : unscheduled) {
+            schedule.add(task.getId(), task.getStartTime(), task.getEndTime());
+        }
+    }
+}
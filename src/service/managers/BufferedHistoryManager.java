@@ -0,0 +1,149 @@
+package service.managers;
+import model.Task;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class BufferedHistoryManager implements HistoryManager {
+
+    private static final int BUFFER_SIZE = 16;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+    private static final int DRAIN_THRESHOLD = BUFFER_SIZE / 2;
+    private static final int FULL = -1;
+
+    private final HistoryManager delegate;
+    private final ReadBuffer[] buffers;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final LongAdder dropped = new LongAdder();
+
+    public BufferedHistoryManager(HistoryManager delegate) {
+        this(delegate, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public BufferedHistoryManager(HistoryManager delegate, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Количество буферов должно быть положительным");
+        }
+        this.delegate = delegate;
+        this.buffers = new ReadBuffer[Integer.highestOneBit(stripes * 2 - 1)];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ReadBuffer();
+        }
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            return;
+        }
+        int pending = buffers[stripe()].offer(task);
+        if (pending == FULL) {
+            dropped.increment();
+            tryDrain();
+        } else if (pending >= DRAIN_THRESHOLD) {
+            tryDrain();
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        drainLock.lock();
+        try {
+            drain();
+            delegate.remove(id);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        drainLock.lock();
+        try {
+            drain();
+            return delegate.getHistory();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public HistoryPage getHistoryAfter(long after, int limit) {
+        drainLock.lock();
+        try {
+            drain();
+            return delegate.getHistoryAfter(after, limit);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public void flush() {
+        drainLock.lock();
+        try {
+            drain();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void tryDrain() {
+        if (drainLock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                drainLock.unlock();
+            }
+        }
+    }
+
+    private void drain() {
+        for (ReadBuffer buffer : buffers) {
+            buffer.drainTo(delegate);
+        }
+    }
+
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ id >>> 32) * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & (buffers.length - 1);
+    }
+
+    private static final class ReadBuffer {
+
+        private final AtomicReferenceArray<Task> slots = new AtomicReferenceArray<>(BUFFER_SIZE);
+        private final AtomicLong writes = new AtomicLong();
+        private volatile long reads;
+
+        private int offer(Task task) {
+            long tail = writes.get();
+            long pending = tail - reads;
+            if (pending >= BUFFER_SIZE || !writes.compareAndSet(tail, tail + 1)) {
+                return FULL;
+            }
+            slots.lazySet((int) tail & BUFFER_MASK, task);
+            return (int) pending + 1;
+        }
+
+        private void drainTo(HistoryManager delegate) {
+            long head = reads;
+            long tail = writes.get();
+            for (; head < tail; head++) {
+                int index = (int) head & BUFFER_MASK;
+                Task task = slots.get(index);
+                if (task == null) {
+                    break;
+                }
+                slots.lazySet(index, null);
+                delegate.add(task);
+            }
+            reads = head;
+        }
+    }
+}
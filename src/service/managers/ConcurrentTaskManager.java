@@ -0,0 +1,221 @@
+package service.managers;
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import model.TimeSlot;
+import service.Managers;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    public ConcurrentTaskManager() {
+        super(new SynchronizedHistoryManager(Managers.getDefaultHistory()));
+    }
+
+    public ConcurrentTaskManager(HistoryManager historyManager) {
+        super(threadSafe(historyManager));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return read(super::getAllTasks);
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return read(super::getAllEpics);
+    }
+
+    @Override
+    public List<SubTask> getAllSubtasks() {
+        return read(super::getAllSubtasks);
+    }
+
+    @Override
+    public List<Task> getTasksAfter(int afterId, int limit) {
+        return read(() -> super.getTasksAfter(afterId, limit));
+    }
+
+    @Override
+    public List<Epic> getEpicsAfter(int afterId, int limit) {
+        return read(() -> super.getEpicsAfter(afterId, limit));
+    }
+
+    @Override
+    public List<SubTask> getSubtasksAfter(int afterId, int limit) {
+        return read(() -> super.getSubtasksAfter(afterId, limit));
+    }
+
+    @Override
+    public Task getTask(int id) {
+        return read(() -> super.getTask(id));
+    }
+
+    @Override
+    public Epic getEpic(int id) {
+        return read(() -> super.getEpic(id));
+    }
+
+    @Override
+    public SubTask getSubtask(int id) {
+        return read(() -> super.getSubtask(id));
+    }
+
+    @Override
+    public Task findTask(int id) {
+        return read(() -> super.findTask(id));
+    }
+
+    @Override
+    public void addTask(Task task) {
+        write(() -> super.addTask(task));
+    }
+
+    @Override
+    public void addEpic(Epic epic) {
+        write(() -> super.addEpic(epic));
+    }
+
+    @Override
+    public void addSubtask(SubTask subtask) {
+        write(() -> super.addSubtask(subtask));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        write(() -> super.updateTask(task));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        write(() -> super.updateEpic(epic));
+    }
+
+    @Override
+    public void updateSubtask(SubTask subtask) {
+        write(() -> super.updateSubtask(subtask));
+    }
+
+    @Override
+    public void addAll(List<? extends Task> batch) {
+        write(() -> super.addAll(batch));
+    }
+
+    @Override
+    public void updateAll(List<? extends Task> batch) {
+        write(() -> super.updateAll(batch));
+    }
+
+    @Override
+    public void removeTask(int id) {
+        write(() -> super.removeTask(id));
+    }
+
+    @Override
+    public void removeEpic(int id) {
+        write(() -> super.removeEpic(id));
+    }
+
+    @Override
+    public void removeSubtask(int id) {
+        write(() -> super.removeSubtask(id));
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        write(super::deleteAllTasks);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        write(super::deleteAllEpics);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        write(super::deleteAllSubtasks);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(super::getHistory);
+    }
+
+    @Override
+    public HistoryPage getHistoryAfter(long after, int limit) {
+        return read(() -> super.getHistoryAfter(after, limit));
+    }
+
+    @Override
+    public List<SubTask> getSubtasksOfEpic(int epicId) {
+        return read(() -> super.getSubtasksOfEpic(epicId));
+    }
+
+    @Override
+    public List<Task> getPriorityTasks() {
+        return read(super::getPriorityTasks);
+    }
+
+    @Override
+    public List<Task> getPriorityTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return read(() -> super.getPriorityTasks(from, to, limit));
+    }
+
+    @Override
+    public List<Task> getPriorityTasksAfter(LocalDateTime afterStart, int afterId, int limit) {
+        return read(() -> super.getPriorityTasksAfter(afterStart, afterId, limit));
+    }
+
+    @Override
+    public List<Task> findTasks(TaskQuery query) {
+        return read(() -> super.findTasks(query));
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(LocalDateTime from, Duration duration, int count) {
+        return read(() -> super.findFreeSlots(from, duration, count));
+    }
+
+    protected <T> T read(Supplier<T> action) {
+        readLock.lock();
+        try {
+            return action.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    protected void write(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    protected <T> T write(Supplier<T> action) {
+        writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static HistoryManager threadSafe(HistoryManager historyManager) {
+        if (historyManager instanceof SynchronizedHistoryManager || historyManager instanceof BufferedHistoryManager) {
+            return historyManager;
+        }
+        return new SynchronizedHistoryManager(historyManager);
+    }
+}
@@ -10,4 +10,6 @@ public interface HistoryManager {
 
     List<Task> getHistory();
 
+    HistoryPage getHistoryAfter(long after, int limit);
+
 }
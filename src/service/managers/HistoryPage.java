@@ -0,0 +1,22 @@
+package service.managers;
+import model.Task;
+import java.util.List;
+
+public class HistoryPage {
+
+    private final List<Task> tasks;
+    private final long cursor;
+
+    public HistoryPage(List<Task> tasks, long cursor) {
+        this.tasks = tasks;
+        this.cursor = cursor;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+}
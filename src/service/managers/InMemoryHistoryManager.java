@@ -1,70 +1,184 @@
 package service.managers;
-import model.Node;
 import model.Task;
-import java.util.HashMap;
-import java.util.LinkedList;
+import util.IntIntMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 public class InMemoryHistoryManager implements HistoryManager {
 
-    private final Map<Integer, Node> historyMap = new HashMap<>();
-    private Node first;
-    private Node last;
+    private static final int NONE = -1;
+    private static final int MIN_SLOTS = 16;
 
+    private final IntIntMap slots = new IntIntMap();
+    private final int capacity;
+    private Task[] tasks;
+    private int[] prev;
+    private int[] next;
+    private long[] sequences;
+    private long[] views;
+    private int[] viewSlots;
+    private int viewCount;
+    private long sequence;
+    private int first = NONE;
+    private int last = NONE;
+    private int freeSlot = NONE;
+    private int used;
+
+    public InMemoryHistoryManager() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть положительным");
+        }
+        this.capacity = capacity;
+        int initial = Math.min(capacity, MIN_SLOTS);
+        tasks = new Task[initial];
+        prev = new int[initial];
+        next = new int[initial];
+        sequences = new long[initial];
+        views = new long[initial];
+        viewSlots = new int[initial];
+    }
 
     @Override
     public void add(Task task) {
-        if (task != null) {
-            remove(task.getId());
-            linkLast(task);
+        if (task == null) {
+            return;
+        }
+        ensureViewCapacity();
+        int slot = slots.get(task.getId(), NONE);
+        if (slot != NONE) {
+            tasks[slot] = task;
+            if (slot != last) {
+                unlink(slot);
+                linkLast(slot);
+            }
+            recordView(slot);
+            return;
         }
+        if (slots.size() >= capacity) {
+            slot = first;
+            slots.remove(tasks[slot].getId());
+            unlink(slot);
+        } else {
+            slot = allocate();
+        }
+        tasks[slot] = task;
+        slots.put(task.getId(), slot);
+        linkLast(slot);
+        recordView(slot);
     }
 
     @Override
     public void remove(int id) {
-        Node node = historyMap.remove(id);
-        if (node != null) {
-            removeNode(node);
+        int slot = slots.get(id, NONE);
+        if (slot != NONE) {
+            slots.remove(id);
+            unlink(slot);
+            tasks[slot] = null;
+            sequences[slot] = 0;
+            next[slot] = freeSlot;
+            freeSlot = slot;
         }
     }
 
     @Override
     public List<Task> getHistory() {
-        List<Task> history = new LinkedList<>();
-        Node current = first;
-        while (current != null) {
-            history.add(current.getTask());
-            current = current.getNext();
+        List<Task> history = new ArrayList<>(slots.size());
+        for (int slot = first; slot != NONE; slot = next[slot]) {
+            history.add(tasks[slot]);
         }
         return history;
     }
 
-    private void linkLast(Task task) {
-        Node newNode = new Node(task, last, null);
-        if (last != null) {
-            last.setNext(newNode);
+    @Override
+    public HistoryPage getHistoryAfter(long after, int limit) {
+        int low = 0;
+        int high = viewCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (views[middle] <= after) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        List<Task> history = new ArrayList<>(Math.min(limit, slots.size()));
+        long cursor = after;
+        for (int i = low; i < viewCount && history.size() < limit; i++) {
+            int slot = viewSlots[i];
+            if (sequences[slot] == views[i]) {
+                history.add(tasks[slot]);
+                cursor = views[i];
+            }
+        }
+        return new HistoryPage(history, cursor);
+    }
+
+    private void ensureViewCapacity() {
+        if (viewCount < views.length) {
+            return;
+        }
+        if (viewCount >= 2 * slots.size()) {
+            viewCount = 0;
+            for (int slot = first; slot != NONE; slot = next[slot]) {
+                views[viewCount] = sequences[slot];
+                viewSlots[viewCount++] = slot;
+            }
         } else {
-            first = newNode;
+            views = Arrays.copyOf(views, viewCount * 2);
+            viewSlots = Arrays.copyOf(viewSlots, viewCount * 2);
         }
-        last = newNode;
-        historyMap.put(task.getId(), newNode);
     }
 
-    private void removeNode(Node node) {
-        Node prev = node.getPrev();
-        Node next = node.getNext();
+    private void recordView(int slot) {
+        sequences[slot] = ++sequence;
+        views[viewCount] = sequence;
+        viewSlots[viewCount++] = slot;
+    }
 
-        if (prev != null) {
-            prev.setNext(next);
+    private int allocate() {
+        if (freeSlot != NONE) {
+            int slot = freeSlot;
+            freeSlot = next[slot];
+            return slot;
+        }
+        if (used == tasks.length) {
+            int length = (int) Math.min(capacity, tasks.length * 2L);
+            tasks = Arrays.copyOf(tasks, length);
+            prev = Arrays.copyOf(prev, length);
+            next = Arrays.copyOf(next, length);
+            sequences = Arrays.copyOf(sequences, length);
+        }
+        return used++;
+    }
+
+    private void linkLast(int slot) {
+        prev[slot] = last;
+        next[slot] = NONE;
+        if (last != NONE) {
+            next[last] = slot;
         } else {
-            first = next;
+            first = slot;
         }
+        last = slot;
+    }
 
-        if (next != null) {
-            next.setPrev(prev);
+    private void unlink(int slot) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            first = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
         } else {
-            first = prev;
+            last = before;
         }
     }
 }
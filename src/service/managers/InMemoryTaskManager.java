@@ -1,39 +1,69 @@
 package service.managers;
 import exception.ValidationException;
 import model.Epic;
-import model.enums.Status;
 import model.SubTask;
 import model.Task;
+import model.TimeSlot;
+import model.enums.TaskType;
 import service.Managers;
+import util.IntArraySet;
+import util.IntObjectMap;
+import util.IntSortedMap;
+import util.IntervalTree;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
 public class InMemoryTaskManager implements TaskManager {
 
-    protected final Map<Integer, Task> tasks = new HashMap<>();
-    protected final Map<Integer, Epic> epics = new HashMap<>();
-    protected final Map<Integer, SubTask> subtasks = new HashMap<>();
+    protected final IntObjectMap<Task> tasks = new IntObjectMap<>();
+    protected final IntObjectMap<Epic> epics = new IntObjectMap<>();
+    protected final IntObjectMap<SubTask> subtasks = new IntObjectMap<>();
     protected int id = 0;
-    protected final HistoryManager historyManager = Managers.getDefaultHistory();
+    protected final HistoryManager historyManager;
     private final Comparator<Task> taskComparator
             = Comparator.comparing(Task::getStartTime,
             Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(Task::getId);
-    protected final Set<Task> prioritizedTasks = new TreeSet<>(taskComparator);
+    protected final NavigableSet<Task> prioritizedTasks = new TreeSet<>(taskComparator);
+    private final IntervalTree scheduleIndex = new IntervalTree();
+    private final TaskIndex taskIndex = new TaskIndex();
+
+    public InMemoryTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    protected InMemoryTaskManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+    }
 
     @Override
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks.values());
+        return views(page(TaskType.TASK, 0, Integer.MAX_VALUE));
     }
 
     @Override
     public List<Epic> getAllEpics() {
-        return new ArrayList<>(epics.values());
+        return views(page(TaskType.EPIC, 0, Integer.MAX_VALUE));
     }
 
     @Override
     public List<SubTask> getAllSubtasks() {
-        return new ArrayList<>(subtasks.values());
+        return views(page(TaskType.SUBTASK, 0, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<Task> getTasksAfter(int afterId, int limit) {
+        return views(page(TaskType.TASK, afterId, limit));
+    }
+
+    @Override
+    public List<Epic> getEpicsAfter(int afterId, int limit) {
+        return views(page(TaskType.EPIC, afterId, limit));
+    }
+
+    @Override
+    public List<SubTask> getSubtasksAfter(int afterId, int limit) {
+        return views(page(TaskType.SUBTASK, afterId, limit));
     }
 
     @Override
@@ -42,7 +72,7 @@ public class InMemoryTaskManager implements TaskManager {
         if (task != null) {
             historyManager.add(task);
         }
-        return task;
+        return view(task);
     }
 
     @Override
@@ -51,7 +81,7 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic != null) {
             historyManager.add(epic);
         }
-        return epic;
+        return view(epic);
     }
 
     @Override
@@ -60,7 +90,16 @@ public class InMemoryTaskManager implements TaskManager {
         if (subtask != null) {
             historyManager.add(subtask);
         }
-        return subtask;
+        return view(subtask);
+    }
+
+    @Override
+    public Task findTask(int id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = epics.get(id);
+        }
+        return view(task != null ? task : subtasks.get(id));
     }
 
     @Override
@@ -70,13 +109,15 @@ public class InMemoryTaskManager implements TaskManager {
         }
         task.setId(++id);
         tasks.put(task.getId(), task);
-        prioritizedTasks.add(task);
+        addToSchedule(task);
+        taskIndex.update(task);
     }
 
     @Override
     public void addEpic(Epic epic) {
         epic.setId(++id);
         epics.put(epic.getId(), epic);
+        taskIndex.update(epic);
     }
 
     @Override
@@ -88,10 +129,10 @@ public class InMemoryTaskManager implements TaskManager {
             }
             subtask.setId(++id);
             subtasks.put(subtask.getId(), subtask);
-            prioritizedTasks.add(subtask);
-            epic.addSubTask(subtask.getId());
-            updateEpicTimeAndDuration(epic);
-            updateStatus(epic);
+            addToSchedule(subtask);
+            taskIndex.update(subtask);
+            epic.addSubTask(subtask);
+            taskIndex.update(epic);
         } else {
             throw new ValidationException("Epic with ID " + subtask.getEpicId() + " not found.");
         }
@@ -103,9 +144,7 @@ public class InMemoryTaskManager implements TaskManager {
             if (hasOverlaps(task)) {
                 throw new ValidationException("Task overlaps with an existing task.");
             }
-            prioritizedTasks.remove(tasks.get(task.getId()));
-            tasks.put(task.getId(), task);
-            prioritizedTasks.add(task);
+            replaceTask(tasks.get(task.getId()), task);
         } else {
             throw new ValidationException("Task with ID " + task.getId() + " not found.");
         }
@@ -114,9 +153,7 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void updateEpic(Epic epic) {
         if (epics.containsKey(epic.getId())) {
-            Epic savedEpic = epics.get(epic.getId());
-            savedEpic.setName(epic.getName());
-            savedEpic.setDescription(epic.getDescription());
+            replaceEpic(epics.get(epic.getId()), epic);
         } else {
             throw new ValidationException("Epic with ID " + epic.getId() + " not found.");
         }
@@ -129,44 +166,56 @@ public class InMemoryTaskManager implements TaskManager {
             if (hasOverlaps(subtask)) {
                 throw new ValidationException("Subtask overlaps with an existing task.");
             }
-            prioritizedTasks.remove(subtasks.get(subtask.getId()));
-            subtasks.put(subtask.getId(), subtask);
-            prioritizedTasks.add(subtask);
-            Epic epic = epics.get(subtask.getEpicId());
-            if (epic != null) {
-                updateEpicTimeAndDuration(epic);
-                updateStatus(epic);
-            }
+            replaceSubtask(subtasks.get(subtask.getId()), subtask);
         } else {
             throw new ValidationException("Subtask with ID " + subtask.getId() + " not found.");
         }
     }
 
-    private void updateStatus(Epic epic) {
-        List<SubTask> subTasks = getSubtasksOfEpic(epic.getId());
-
-        if (subTasks.isEmpty()) {
-            epic.setStatus(Status.NEW);
-            return;
+    @Override
+    public void addAll(List<? extends Task> batch) {
+        for (Task task : batch) {
+            if (task instanceof SubTask subtask && !epics.containsKey(subtask.getEpicId())) {
+                throw new ValidationException("Epic with ID " + subtask.getEpicId() + " not found.");
+            }
         }
+        BatchValidator.checkOverlaps(batch, scheduleIndex);
+        for (Task task : batch) {
+            task.setId(++id);
+            restore(task);
+        }
+    }
 
-        boolean hasInProgress = false;
-        boolean hasNotDone = false;
-
-        for (SubTask subTask : subTasks) {
-            if (subTask.getStatus() == Status.IN_PROGRESS) {
-                hasInProgress = true;
-            } else if (subTask.getStatus() != Status.DONE) {
-                hasNotDone = true;
+    @Override
+    public void updateAll(List<? extends Task> batch) {
+        List<Task> savedTasks = new ArrayList<>(batch.size());
+        IntArraySet batchIds = new IntArraySet();
+        for (Task task : batch) {
+            Task savedTask = stored(task);
+            if (savedTask == null) {
+                throw new ValidationException("Task with ID " + task.getId() + " not found.");
+            }
+            if (!batchIds.add(task.getId())) {
+                throw new ValidationException("Task with ID " + task.getId() + " is repeated in the batch.");
             }
+            savedTasks.add(savedTask);
         }
-
-        if (hasInProgress) {
-            epic.setStatus(Status.IN_PROGRESS);
-        } else if (!hasNotDone) {
-            epic.setStatus(Status.DONE);
-        } else {
-            epic.setStatus(Status.NEW);
+        List<Task> unscheduled = BatchValidator.unschedule(savedTasks, scheduleIndex);
+        try {
+            BatchValidator.checkOverlaps(batch, scheduleIndex);
+        } catch (ValidationException e) {
+            BatchValidator.reschedule(unscheduled, scheduleIndex);
+            throw e;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Task task = batch.get(i);
+            if (task instanceof Epic epic) {
+                replaceEpic((Epic) savedTasks.get(i), epic);
+            } else if (task instanceof SubTask subtask) {
+                replaceSubtask((SubTask) savedTasks.get(i), subtask);
+            } else {
+                replaceTask(savedTasks.get(i), task);
+            }
         }
     }
 
@@ -174,7 +223,8 @@ public class InMemoryTaskManager implements TaskManager {
     public void removeTask(int id) {
         Task task = tasks.remove(id);
         if (task != null) {
-            prioritizedTasks.remove(task);
+            removeFromSchedule(task);
+            taskIndex.remove(TaskType.TASK, id);
             historyManager.remove(id);
         }
     }
@@ -183,13 +233,8 @@ public class InMemoryTaskManager implements TaskManager {
     public void removeEpic(int id) {
         Epic epic = epics.remove(id);
         if (epic != null) {
-            for (Integer subtaskId : epic.getSubTasks()) {
-                SubTask subTask = subtasks.remove(subtaskId);
-                if (subTask != null) {
-                    prioritizedTasks.remove(subTask);
-                    historyManager.remove(subtaskId);
-                }
-            }
+            epic.forEachSubTask(this::removeSubtaskOfEpic);
+            taskIndex.remove(TaskType.EPIC, id);
             historyManager.remove(id);
         }
     }
@@ -198,12 +243,12 @@ public class InMemoryTaskManager implements TaskManager {
     public void removeSubtask(int id) {
         SubTask subtask = subtasks.remove(id);
         if (subtask != null) {
-            prioritizedTasks.remove(subtask);
+            removeFromSchedule(subtask);
+            taskIndex.remove(TaskType.SUBTASK, id);
             Epic epic = epics.get(subtask.getEpicId());
             if (epic != null) {
                 epic.removeSubTask(id);
-                updateEpicTimeAndDuration(epic);
-                updateStatus(epic);
+                taskIndex.update(epic);
             }
             historyManager.remove(id);
         }
@@ -211,62 +256,62 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void deleteAllTasks() {
-        for (Integer taskId : tasks.keySet()) {
-            historyManager.remove(taskId);
+        for (Task task : tasks.values()) {
+            removeFromSchedule(task);
+            historyManager.remove(task.getId());
         }
         tasks.clear();
-        prioritizedTasks.removeIf(task -> task instanceof Task);
+        taskIndex.clear(TaskType.TASK);
     }
 
     @Override
     public void deleteAllEpics() {
-        for (Integer epicId : epics.keySet()) {
-            Epic epic = epics.get(epicId);
-            if (epic != null) {
-               for (Integer subtaskId : epic.getSubTasks()) {
-                   SubTask subTask = subtasks.remove(subtaskId);
-                   if (subTask != null) {
-                       prioritizedTasks.remove(subTask);
-                       historyManager.remove(subtaskId);
-                   }
-               }
-            }
-            historyManager.remove(epicId);
+        for (Epic epic : epics.values()) {
+            epic.forEachSubTask(this::removeSubtaskOfEpic);
+            historyManager.remove(epic.getId());
         }
         epics.clear();
         subtasks.clear();
+        taskIndex.clear(TaskType.EPIC);
+        taskIndex.clear(TaskType.SUBTASK);
     }
 
     @Override
     public void deleteAllSubtasks() {
         for (SubTask subtask : subtasks.values()) {
-            prioritizedTasks.remove(subtask);
+            removeFromSchedule(subtask);
             historyManager.remove(subtask.getId());
         }
         subtasks.clear();
+        taskIndex.clear(TaskType.SUBTASK);
         for (Epic epic : epics.values()) {
             epic.clearSubTasks();
-            updateEpicTimeAndDuration(epic);
-            updateStatus(epic);
+            taskIndex.update(epic);
         }
     }
 
     @Override
     public List<Task> getHistory() {
-        return historyManager.getHistory();
+        return views(historyManager.getHistory());
+    }
+
+    @Override
+    public HistoryPage getHistoryAfter(long after, int limit) {
+        HistoryPage page = historyManager.getHistoryAfter(after, limit);
+        return new HistoryPage(views(page.getTasks()), page.getCursor());
     }
 
     @Override
     public List<SubTask> getSubtasksOfEpic(int epicId) {
         Epic epic = epics.get(epicId);
         if (epic != null) {
-            List<SubTask> result = new ArrayList<>();
-            for (Integer subTaskId : epic.getSubTasks()) {
+            List<SubTask> result = new ArrayList<>(epic.getSubTaskCount());
+            epic.forEachSubTask(subTaskId -> {
                 SubTask subTask = subtasks.get(subTaskId);
                 if (subTask != null) {
-                    result.add(subTask);
+                    result.add(view(subTask));
                 }
-            }
+            });
             return result;
         }
         return new ArrayList<>();
@@ -274,7 +319,316 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Task> getPriorityTasks() {
-        return new ArrayList<>(prioritizedTasks);
+        return views(new ArrayList<>(prioritizedTasks));
+    }
+
+    @Override
+    public List<Task> getPriorityTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        List<Task> result = new ArrayList<>();
+        for (Task task : scheduleWindow(from, to)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(view(task));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> getPriorityTasksAfter(LocalDateTime afterStart, int afterId, int limit) {
+        NavigableSet<Task> tail = prioritizedTasks;
+        if (afterId > 0) {
+            tail = prioritizedTasks.tailSet(new Task(afterId, null, null, null, afterStart, null), false);
+        }
+        List<Task> result = new ArrayList<>();
+        for (Task task : tail) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(view(task));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findTasks(TaskQuery query) {
+        List<Task> result = new ArrayList<>();
+        if (query.getEpicId() != null) {
+            Epic epic = epics.get(query.getEpicId());
+            if (epic != null) {
+                epic.forEachSubTask(subtaskId -> addIfMatches(subtasks.get(subtaskId), query, result));
+            }
+            return result;
+        }
+        boolean scheduled = query.getType() != TaskType.EPIC;
+        if (scheduled && query.hasTimeWindow()) {
+            for (Task task : scheduleWindow(query.getFrom(), query.getTo())) {
+                addIfMatches(task, query, result);
+            }
+        } else if (scheduled && query.getStatus() != null) {
+            collectByStatus(TaskType.TASK, tasks, query, result);
+            collectByStatus(TaskType.SUBTASK, subtasks, query, result);
+        } else if (scheduled) {
+            collect(page(TaskType.TASK, 0, Integer.MAX_VALUE), query, result);
+            collect(page(TaskType.SUBTASK, 0, Integer.MAX_VALUE), query, result);
+        }
+        if (query.getType() == null || query.getType() == TaskType.EPIC) {
+            if (query.getStatus() != null) {
+                collectByStatus(TaskType.EPIC, epics, query, result);
+            } else {
+                collect(page(TaskType.EPIC, 0, Integer.MAX_VALUE), query, result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(LocalDateTime from, Duration duration, int count) {
+        return SlotFinder.find(scheduleIndex, from, duration, count);
+    }
+
+    protected <T extends Task> T view(T task) {
+        return task;
+    }
+
+    protected void restore(Task task) {
+        if (task instanceof Epic epic) {
+            epics.put(epic.getId(), epic);
+            taskIndex.update(epic);
+        } else if (task instanceof SubTask subtask) {
+            subtasks.put(subtask.getId(), subtask);
+            addToSchedule(subtask);
+            taskIndex.update(subtask);
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) {
+                epic.addSubTask(subtask);
+                taskIndex.update(epic);
+            }
+        } else {
+            tasks.put(task.getId(), task);
+            addToSchedule(task);
+            taskIndex.update(task);
+        }
+    }
+
+    protected void restoreAll(List<? extends List<? extends Task>> batches) {
+        if (!tasks.isEmpty() || !epics.isEmpty() || !subtasks.isEmpty()) {
+            for (List<? extends Task> batch : batches) {
+                batch.forEach(this::restore);
+            }
+            return;
+        }
+        List<List<Task>> runs = batches.parallelStream()
+                .map(this::scheduledRun)
+                .toList();
+        int[] counts = new int[TaskType.values().length];
+        for (List<? extends Task> batch : batches) {
+            for (Task task : batch) {
+                counts[task.getType().ordinal()]++;
+            }
+        }
+        tasks.ensureCapacity(counts[TaskType.TASK.ordinal()]);
+        epics.ensureCapacity(counts[TaskType.EPIC.ordinal()]);
+        subtasks.ensureCapacity(counts[TaskType.SUBTASK.ordinal()]);
+        List<SubTask> linked = new ArrayList<>(counts[TaskType.SUBTASK.ordinal()]);
+        for (List<? extends Task> batch : batches) {
+            for (Task task : batch) {
+                if (task instanceof Epic epic) {
+                    epics.put(epic.getId(), epic);
+                } else if (task instanceof SubTask subtask) {
+                    subtasks.put(subtask.getId(), subtask);
+                    linked.add(subtask);
+                } else {
+                    tasks.put(task.getId(), task);
+                }
+                taskIndex.add(task);
+            }
+        }
+        for (SubTask subtask : linked) {
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) {
+                epic.addSubTask(subtask);
+            }
+        }
+        for (Epic epic : epics.values()) {
+            if (epic.getSubTaskCount() > 0) {
+                taskIndex.update(epic);
+            }
+        }
+        buildSchedule(mergeRuns(runs, 0, runs.size()));
+    }
+
+    protected NavigableSet<Task> scheduleWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return prioritizedTasks;
+        }
+        if (to == null) {
+            return prioritizedTasks.subSet(scheduleProbe(from), true, scheduleProbe(null), false);
+        }
+        if (from == null) {
+            return prioritizedTasks.headSet(scheduleProbe(to), false);
+        }
+        if (!from.isBefore(to)) {
+            return Collections.emptyNavigableSet();
+        }
+        return prioritizedTasks.subSet(scheduleProbe(from), true, scheduleProbe(to), false);
+    }
+
+    private Task scheduleProbe(LocalDateTime startTime) {
+        return new Task(Integer.MIN_VALUE, null, null, null, startTime, null);
+    }
+
+    private <T extends Task> List<T> views(List<T> source) {
+        source.replaceAll(this::view);
+        return source;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Task> List<T> page(TaskType type, int afterId, int limit) {
+        IntSortedMap<Task> ordered = taskIndex.ordered(type);
+        int fromIndex = ordered.indexAfter(afterId);
+        List<T> result = new ArrayList<>(Math.min(limit, ordered.size() - fromIndex));
+        for (int i = fromIndex; i < ordered.size() && result.size() < limit; i++) {
+            result.add((T) ordered.valueAt(i));
+        }
+        return result;
+    }
+
+    private void collectByStatus(TaskType type, IntObjectMap<? extends Task> source, TaskQuery query, List<Task> result) {
+        if (query.getType() == null || query.getType() == type) {
+            taskIndex.ids(type, query.getStatus()).forEach(taskId -> addIfMatches(source.get(taskId), query, result));
+        }
+    }
+
+    private void collect(Collection<? extends Task> source, TaskQuery query, List<Task> result) {
+        for (Task task : source) {
+            addIfMatches(task, query, result);
+        }
+    }
+
+    private void addIfMatches(Task task, TaskQuery query, List<Task> result) {
+        if (query.matches(task)) {
+            result.add(view(task));
+        }
+    }
+
+    private Task stored(Task task) {
+        if (task instanceof Epic) {
+            return epics.get(task.getId());
+        }
+        if (task instanceof SubTask) {
+            return subtasks.get(task.getId());
+        }
+        return tasks.get(task.getId());
+    }
+
+    private void replaceTask(Task savedTask, Task task) {
+        removeFromSchedule(savedTask);
+        tasks.put(task.getId(), task);
+        addToSchedule(task);
+        taskIndex.update(task);
+    }
+
+    private void replaceEpic(Epic savedEpic, Epic epic) {
+        savedEpic.setName(epic.getName());
+        savedEpic.setDescription(epic.getDescription());
+    }
+
+    private void replaceSubtask(SubTask savedSubtask, SubTask subtask) {
+        removeFromSchedule(savedSubtask);
+        subtasks.put(subtask.getId(), subtask);
+        addToSchedule(subtask);
+        taskIndex.update(subtask);
+        if (savedSubtask.getEpicId() != subtask.getEpicId()) {
+            Epic previousEpic = epics.get(savedSubtask.getEpicId());
+            if (previousEpic != null) {
+                previousEpic.removeSubTask(subtask.getId());
+                taskIndex.update(previousEpic);
+            }
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) {
+                epic.addSubTask(subtask);
+                taskIndex.update(epic);
+            }
+        } else {
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) {
+                epic.updateSubTask(subtask);
+                taskIndex.update(epic);
+            }
+        }
+    }
+
+    private void removeSubtaskOfEpic(int subtaskId) {
+        SubTask subTask = subtasks.remove(subtaskId);
+        if (subTask != null) {
+            removeFromSchedule(subTask);
+            taskIndex.remove(TaskType.SUBTASK, subtaskId);
+            historyManager.remove(subtaskId);
+        }
+    }
+
+    private List<Task> scheduledRun(List<? extends Task> batch) {
+        List<Task> run = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            if (!(task instanceof Epic)) {
+                run.add(task);
+            }
+        }
+        run.sort(taskComparator);
+        return run;
+    }
+
+    private List<Task> mergeRuns(List<List<Task>> runs, int from, int to) {
+        if (to - from == 0) {
+            return List.of();
+        }
+        if (to - from == 1) {
+            return runs.get(from);
+        }
+        int middle = (from + to) >>> 1;
+        List<Task> left = mergeRuns(runs, from, middle);
+        List<Task> right = mergeRuns(runs, middle, to);
+        List<Task> merged = new ArrayList<>(left.size() + right.size());
+        int i = 0;
+        int j = 0;
+        while (i < left.size() && j < right.size()) {
+            merged.add(taskComparator.compare(left.get(i), right.get(j)) <= 0 ? left.get(i++) : right.get(j++));
+        }
+        merged.addAll(left.subList(i, left.size()));
+        merged.addAll(right.subList(j, right.size()));
+        return merged;
+    }
+
+    private void buildSchedule(List<Task> sorted) {
+        prioritizedTasks.addAll(new SortedRun(sorted, taskComparator));
+        int[] ids = new int[sorted.size()];
+        LocalDateTime[] starts = new LocalDateTime[sorted.size()];
+        LocalDateTime[] ends = new LocalDateTime[sorted.size()];
+        int count = 0;
+        for (Task task : sorted) {
+            if (task.getStartTime() != null && task.getDuration() != null) {
+                ids[count] = task.getId();
+                starts[count] = task.getStartTime();
+                ends[count] = task.getEndTime();
+                count++;
+            }
+        }
+        scheduleIndex.build(ids, starts, ends, count);
+    }
+
+    protected void addToSchedule(Task task) {
+        prioritizedTasks.add(task);
+        if (task.getStartTime() != null && task.getDuration() != null) {
+            scheduleIndex.add(task.getId(), task.getStartTime(), task.getEndTime());
+        }
+    }
+
+    protected void removeFromSchedule(Task task) {
+        if (task != null) {
+            prioritizedTasks.remove(task);
+            scheduleIndex.remove(task.getId());
+        }
     }
 
     private boolean hasOverlaps(Task newTask) {
@@ -284,45 +638,76 @@ public class InMemoryTaskManager implements TaskManager {
 
         LocalDateTime startTime = newTask.getStartTime();
         LocalDateTime endTime = startTime.plus(newTask.getDuration());
+        return scheduleIndex.overlaps(startTime, endTime, newTask.getId());
+    }
 
-        return prioritizedTasks.stream()
-                .filter(existingTask -> existingTask.getId() != newTask.getId())
-                .anyMatch(existingTask -> {
-                    if (existingTask.getStartTime() == null || existingTask.getDuration() == null) {
-                        return false;
-                    }
-
-                    LocalDateTime existingStart = existingTask.getStartTime();
-                    LocalDateTime existingEnd = existingStart.plus(existingTask.getDuration());
-                    return startTime.isBefore(existingEnd) && endTime.isAfter(existingStart);
-        });
-    }
-
-    private void updateEpicTimeAndDuration(Epic epic) {
-        Duration duration = Duration.ZERO;
-        LocalDateTime startTime = null;
-        LocalDateTime endTime = null;
-
-        for (Integer subtaskId : epic.getSubTasks()) {
-            SubTask subTask = subtasks.get(subtaskId);
-            if (subTask.getStartTime() != null) {
-                if (startTime == null || subTask.getStartTime().isBefore(startTime)) {
-                    startTime = subTask.getStartTime();
-                }
-                if (endTime == null || subTask.getEndTime().isAfter(endTime)) {
-                    endTime = subTask.getEndTime();
-                }
+    private static final class SortedRun extends AbstractSet<Task> implements SortedSet<Task> {
+
+        private final List<Task> sorted;
+        private final Comparator<Task> comparator;
+
+        private SortedRun(List<Task> sorted, Comparator<Task> comparator) {
+            this.sorted = sorted;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return Collections.unmodifiableList(sorted).iterator();
+        }
+
+        @Override
+        public int size() {
+            return sorted.size();
+        }
+
+        @Override
+        public boolean contains(Object element) {
+            return element instanceof Task task && Collections.binarySearch(sorted, task, comparator) >= 0;
+        }
+
+        @Override
+        public Comparator<? super Task> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public Task first() {
+            if (sorted.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return sorted.get(0);
+        }
+
+        @Override
+        public Task last() {
+            if (sorted.isEmpty()) {
+                throw new NoSuchElementException();
             }
-            if (subTask.getDuration() != null) {
-                duration = duration.plus(subTask.getDuration());
+            return sorted.get(sorted.size() - 1);
+        }
+
+        @Override
+        public SortedSet<Task> subSet(Task fromElement, Task toElement) {
+            if (comparator.compare(fromElement, toElement) > 0) {
+                throw new IllegalArgumentException("Начало диапазона больше конца");
             }
+            return new SortedRun(sorted.subList(lowerBound(fromElement), lowerBound(toElement)), comparator);
+        }
 
+        @Override
+        public SortedSet<Task> headSet(Task toElement) {
+            return new SortedRun(sorted.subList(0, lowerBound(toElement)), comparator);
+        }
 
+        @Override
+        public SortedSet<Task> tailSet(Task fromElement) {
+            return new SortedRun(sorted.subList(lowerBound(fromElement), sorted.size()), comparator);
         }
 
-        epic.setStartTime(startTime);
-        epic.setDuration(duration);
-        epic.setEndTime(endTime);
+        private int lowerBound(Task element) {
+            int index = Collections.binarySearch(sorted, element, comparator);
+            return index >= 0 ? index : -index - 1;
+        }
     }
-
 }
@@ -0,0 +1,162 @@
+package service.managers;
+import model.Task;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+public class SessionHistoryManager {
+
+    public static final int MAX_SESSION_LENGTH = 64;
+
+    private static final int SESSION_BYTES = 128;
+    private static final int MIN_ENTRIES = 4;
+
+    private final int capacity;
+    private final long maxBytes;
+    private final long idleNanos;
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+    private long evictedCount;
+
+    public SessionHistoryManager(int capacity, long maxBytes, Duration idleTimeout) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть положительным");
+        }
+        if (maxBytes < footprint(MAX_SESSION_LENGTH, capacity)) {
+            throw new IllegalArgumentException("Бюджет памяти меньше размера одной сессии");
+        }
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+        this.idleNanos = idleTimeout.toNanos();
+    }
+
+    public synchronized void add(String session, int taskId) {
+        if (session.length() > MAX_SESSION_LENGTH) {
+            throw new IllegalArgumentException("Идентификатор сессии длиннее " + MAX_SESSION_LENGTH + " символов");
+        }
+        long now = System.nanoTime();
+        expire(now);
+        Session history = sessions.get(session);
+        if (history == null) {
+            history = new Session(capacity);
+            sessions.put(session, history);
+        } else {
+            usedBytes -= footprint(session.length(), history.ids.length);
+        }
+        history.add(taskId, capacity);
+        history.lastAccess = now;
+        usedBytes += footprint(session.length(), history.ids.length);
+        Iterator<Map.Entry<String, Session>> eldest = sessions.entrySet().iterator();
+        while (usedBytes > maxBytes) {
+            evict(eldest);
+        }
+    }
+
+    public synchronized int[] getHistory(String session) {
+        long now = System.nanoTime();
+        expire(now);
+        Session history = sessions.get(session);
+        if (history == null) {
+            return new int[0];
+        }
+        history.lastAccess = now;
+        return Arrays.copyOf(history.ids, history.size);
+    }
+
+    public synchronized HistoryPage getHistoryAfter(String session, long after, int limit, IntFunction<Task> lookup) {
+        long now = System.nanoTime();
+        expire(now);
+        Session history = sessions.get(session);
+        List<Task> tasks = new ArrayList<>();
+        long cursor = after;
+        if (history == null) {
+            return new HistoryPage(tasks, cursor);
+        }
+        history.lastAccess = now;
+        int from = Arrays.binarySearch(history.sequences, 0, history.size, after);
+        for (int i = from < 0 ? -from - 1 : from + 1; i < history.size && tasks.size() < limit; i++) {
+            Task task = lookup.apply(history.ids[i]);
+            if (task != null) {
+                tasks.add(task);
+                cursor = history.sequences[i];
+            }
+        }
+        return new HistoryPage(tasks, cursor);
+    }
+
+    public synchronized int getSessionCount() {
+        return sessions.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getEvictedCount() {
+        return evictedCount;
+    }
+
+    private void expire(long now) {
+        Iterator<Map.Entry<String, Session>> eldest = sessions.entrySet().iterator();
+        while (eldest.hasNext()) {
+            Map.Entry<String, Session> entry = eldest.next();
+            if (now - entry.getValue().lastAccess <= idleNanos) {
+                return;
+            }
+            usedBytes -= footprint(entry.getKey().length(), entry.getValue().ids.length);
+            eldest.remove();
+        }
+    }
+
+    private void evict(Iterator<Map.Entry<String, Session>> eldest) {
+        Map.Entry<String, Session> entry = eldest.next();
+        usedBytes -= footprint(entry.getKey().length(), entry.getValue().ids.length);
+        eldest.remove();
+        evictedCount++;
+    }
+
+    private static long footprint(int keyLength, int entries) {
+        return SESSION_BYTES + 2L * keyLength + (Integer.BYTES + Long.BYTES) * (long) entries;
+    }
+
+    private static final class Session {
+
+        private int[] ids;
+        private long[] sequences;
+        private int size;
+        private long views;
+        private long lastAccess;
+
+        private Session(int capacity) {
+            ids = new int[Math.min(MIN_ENTRIES, capacity)];
+            sequences = new long[ids.length];
+        }
+
+        private void add(int taskId, int capacity) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (ids[i] == taskId) {
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    System.arraycopy(sequences, i + 1, sequences, i, size - i - 1);
+                    ids[size - 1] = taskId;
+                    sequences[size - 1] = ++views;
+                    return;
+                }
+            }
+            if (size == capacity) {
+                System.arraycopy(ids, 1, ids, 0, size - 1);
+                System.arraycopy(sequences, 1, sequences, 0, size - 1);
+                size--;
+            } else if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.min(capacity, ids.length * 2));
+                sequences = Arrays.copyOf(sequences, ids.length);
+            }
+            ids[size] = taskId;
+            sequences[size++] = ++views;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package service.managers;
+import model.Task;
+import model.TimeSlot;
+import util.IntervalTree;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+final class SlotFinder implements BiPredicate<LocalDateTime, LocalDateTime> {
+
+    private final Duration duration;
+    private final int count;
+    private final List<TimeSlot> slots = new ArrayList<>();
+    private LocalDateTime cursor;
+
+    private SlotFinder(LocalDateTime from, Duration duration, int count) {
+        this.cursor = from;
+        this.duration = duration;
+        this.count = count;
+    }
+
+    static List<TimeSlot> find(IntervalTree schedule, LocalDateTime from, Duration duration, int count) {
+        SlotFinder finder = new SlotFinder(from, duration, count);
+        LocalDateTime latestEnd = schedule.latestEnd(from);
+        if (latestEnd != null && latestEnd.isAfter(from)) {
+            finder.cursor = latestEnd;
+        }
+        schedule.forEachFrom(from, finder);
+        if (finder.slots.size() < count) {
+            finder.slots.add(new TimeSlot(finder.cursor, null));
+        }
+        return finder.slots;
+    }
+
+    static List<TimeSlot> find(List<Task> prioritized, int fromIndex, LocalDateTime from, Duration duration,
+                               int count) {
+        SlotFinder finder = new SlotFinder(from, duration, count);
+        for (int i = fromIndex - 1; i >= 0; i--) {
+            Task task = prioritized.get(i);
+            if (task.getDuration() == null) {
+                continue;
+            }
+            LocalDateTime end = task.getEndTime();
+            if (end.isAfter(finder.cursor)) {
+                finder.cursor = end;
+            }
+            if (end.isAfter(task.getStartTime())) {
+                break;
+            }
+        }
+        for (Task task : prioritized.subList(fromIndex, prioritized.size())) {
+            if (task.getStartTime() == null) {
+                break;
+            }
+            if (task.getDuration() != null && !finder.test(task.getStartTime(), task.getEndTime())) {
+                return finder.slots;
+            }
+        }
+        finder.slots.add(new TimeSlot(finder.cursor, null));
+        return finder.slots;
+    }
+
+    @Override
+    public boolean test(LocalDateTime start, LocalDateTime end) {
+        if (!cursor.plus(duration).isAfter(start)) {
+            slots.add(new TimeSlot(cursor, start));
+        }
+        if (end.isAfter(cursor)) {
+            cursor = end;
+        }
+        return slots.size() < count;
+    }
+}
@@ -0,0 +1,552 @@
+package service.managers;
+import exception.ValidationException;
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import model.TimeSlot;
+import model.enums.TaskType;
+import service.Managers;
+import util.IntArraySet;
+import util.IntervalTree;
+import util.PersistentTreeMap;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class SnapshotTaskManager implements TaskManager {
+
+    private static final Comparator<Task> TASK_COMPARATOR
+            = Comparator.comparing(Task::getStartTime,
+            Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(Task::getId);
+
+    private final HistoryManager historyManager = new SynchronizedHistoryManager(Managers.getDefaultHistory());
+    private final IntervalTree scheduleIndex = new IntervalTree();
+    private final Object writeLock = new Object();
+    private int id = 0;
+    private volatile Snapshot snapshot = new Snapshot(
+            new PersistentTreeMap<>(Comparator.naturalOrder()),
+            new PersistentTreeMap<>(Comparator.naturalOrder()),
+            new PersistentTreeMap<>(Comparator.naturalOrder()),
+            new PersistentTreeMap<>(TASK_COMPARATOR));
+
+    @Override
+    public List<Task> getAllTasks() {
+        return snapshot.tasks.values();
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return snapshot.epics.values();
+    }
+
+    @Override
+    public List<SubTask> getAllSubtasks() {
+        return snapshot.subtasks.values();
+    }
+
+    @Override
+    public List<Task> getTasksAfter(int afterId, int limit) {
+        return page(snapshot.tasks, afterId, limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsAfter(int afterId, int limit) {
+        return page(snapshot.epics, afterId, limit);
+    }
+
+    @Override
+    public List<SubTask> getSubtasksAfter(int afterId, int limit) {
+        return page(snapshot.subtasks, afterId, limit);
+    }
+
+    @Override
+    public Task getTask(int id) {
+        Task task = snapshot.tasks.get(id);
+        if (task != null) {
+            historyManager.add(task);
+        }
+        return task;
+    }
+
+    @Override
+    public Epic getEpic(int id) {
+        Epic epic = snapshot.epics.get(id);
+        if (epic != null) {
+            historyManager.add(epic);
+        }
+        return epic;
+    }
+
+    @Override
+    public SubTask getSubtask(int id) {
+        SubTask subtask = snapshot.subtasks.get(id);
+        if (subtask != null) {
+            historyManager.add(subtask);
+        }
+        return subtask;
+    }
+
+    @Override
+    public Task findTask(int id) {
+        Snapshot current = snapshot;
+        Task task = current.tasks.get(id);
+        if (task == null) {
+            task = current.epics.get(id);
+        }
+        return task != null ? task : current.subtasks.get(id);
+    }
+
+    @Override
+    public void addTask(Task task) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (hasOverlaps(task)) {
+                throw new ValidationException("Task overlaps with an existing task.");
+            }
+            task.setId(++id);
+            addToSchedule(task);
+            snapshot = new Snapshot(current.tasks.put(task.getId(), task), current.epics, current.subtasks,
+                    current.prioritized.put(task, task));
+        }
+    }
+
+    @Override
+    public void addEpic(Epic epic) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            epic.setId(++id);
+            snapshot = new Snapshot(current.tasks, current.epics.put(epic.getId(), epic), current.subtasks,
+                    current.prioritized);
+        }
+    }
+
+    @Override
+    public void addSubtask(SubTask subtask) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Epic epic = current.epics.get(subtask.getEpicId());
+            if (epic == null) {
+                throw new ValidationException("Epic with ID " + subtask.getEpicId() + " not found.");
+            }
+            if (hasOverlaps(subtask)) {
+                throw new ValidationException("Subtask overlaps with an existing task.");
+            }
+            subtask.setId(++id);
+            addToSchedule(subtask);
+            PersistentTreeMap<Integer, Epic> epics = editEpic(current.epics, new IntArraySet(), epic.getId(),
+                    copy -> copy.addSubTask(subtask));
+            snapshot = new Snapshot(current.tasks, epics, current.subtasks.put(subtask.getId(), subtask),
+                    current.prioritized.put(subtask, subtask));
+        }
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Task savedTask = current.tasks.get(task.getId());
+            if (savedTask == null) {
+                throw new ValidationException("Task with ID " + task.getId() + " not found.");
+            }
+            if (hasOverlaps(task)) {
+                throw new ValidationException("Task overlaps with an existing task.");
+            }
+            scheduleIndex.remove(savedTask.getId());
+            addToSchedule(task);
+            snapshot = new Snapshot(current.tasks.put(task.getId(), task), current.epics, current.subtasks,
+                    current.prioritized.remove(savedTask).put(task, task));
+        }
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current.epics.get(epic.getId()) == null) {
+                throw new ValidationException("Epic with ID " + epic.getId() + " not found.");
+            }
+            PersistentTreeMap<Integer, Epic> epics = editEpic(current.epics, new IntArraySet(), epic.getId(),
+                    copy -> rename(copy, epic));
+            snapshot = new Snapshot(current.tasks, epics, current.subtasks, current.prioritized);
+        }
+    }
+
+    @Override
+    public void updateSubtask(SubTask subtask) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            SubTask savedSubtask = current.subtasks.get(subtask.getId());
+            if (savedSubtask == null) {
+                throw new ValidationException("Subtask with ID " + subtask.getId() + " not found.");
+            }
+            if (hasOverlaps(subtask)) {
+                throw new ValidationException("Subtask overlaps with an existing task.");
+            }
+            scheduleIndex.remove(savedSubtask.getId());
+            addToSchedule(subtask);
+            PersistentTreeMap<Integer, Epic> epics = moveSubtask(current.epics, new IntArraySet(), savedSubtask, subtask);
+            snapshot = new Snapshot(current.tasks, epics, current.subtasks.put(subtask.getId(), subtask),
+                    current.prioritized.remove(savedSubtask).put(subtask, subtask));
+        }
+    }
+
+    @Override
+    public void addAll(List<? extends Task> batch) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            for (Task task : batch) {
+                if (task instanceof SubTask subtask && current.epics.get(subtask.getEpicId()) == null) {
+                    throw new ValidationException("Epic with ID " + subtask.getEpicId() + " not found.");
+                }
+            }
+            BatchValidator.checkOverlaps(batch, scheduleIndex);
+            PersistentTreeMap<Integer, Task> tasks = current.tasks;
+            PersistentTreeMap<Integer, Epic> epics = current.epics;
+            PersistentTreeMap<Integer, SubTask> subtasks = current.subtasks;
+            PersistentTreeMap<Task, Task> prioritized = current.prioritized;
+            IntArraySet copied = new IntArraySet();
+            for (Task task : batch) {
+                task.setId(++id);
+                if (task instanceof Epic epic) {
+                    epics = epics.put(epic.getId(), epic);
+                    copied.add(epic.getId());
+                } else if (task instanceof SubTask subtask) {
+                    addToSchedule(subtask);
+                    subtasks = subtasks.put(subtask.getId(), subtask);
+                    prioritized = prioritized.put(subtask, subtask);
+                    epics = editEpic(epics, copied, subtask.getEpicId(), copy -> copy.addSubTask(subtask));
+                } else {
+                    addToSchedule(task);
+                    tasks = tasks.put(task.getId(), task);
+                    prioritized = prioritized.put(task, task);
+                }
+            }
+            snapshot = new Snapshot(tasks, epics, subtasks, prioritized);
+        }
+    }
+
+    @Override
+    public void updateAll(List<? extends Task> batch) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            List<Task> savedTasks = new ArrayList<>(batch.size());
+            IntArraySet batchIds = new IntArraySet();
+            for (Task task : batch) {
+                Task savedTask = task instanceof Epic ? current.epics.get(task.getId())
+                        : task instanceof SubTask ? current.subtasks.get(task.getId()) : current.tasks.get(task.getId());
+                if (savedTask == null) {
+                    throw new ValidationException("Task with ID " + task.getId() + " not found.");
+                }
+                if (!batchIds.add(task.getId())) {
+                    throw new ValidationException("Task with ID " + task.getId() + " is repeated in the batch.");
+                }
+                savedTasks.add(savedTask);
+            }
+            List<Task> unscheduled = BatchValidator.unschedule(savedTasks, scheduleIndex);
+            try {
+                BatchValidator.checkOverlaps(batch, scheduleIndex);
+            } catch (ValidationException e) {
+                BatchValidator.reschedule(unscheduled, scheduleIndex);
+                throw e;
+            }
+            PersistentTreeMap<Integer, Task> tasks = current.tasks;
+            PersistentTreeMap<Integer, Epic> epics = current.epics;
+            PersistentTreeMap<Integer, SubTask> subtasks = current.subtasks;
+            PersistentTreeMap<Task, Task> prioritized = current.prioritized;
+            IntArraySet copied = new IntArraySet();
+            for (int i = 0; i < batch.size(); i++) {
+                Task task = batch.get(i);
+                Task savedTask = savedTasks.get(i);
+                if (task instanceof Epic epic) {
+                    epics = editEpic(epics, copied, epic.getId(), copy -> rename(copy, epic));
+                    continue;
+                }
+                addToSchedule(task);
+                prioritized = prioritized.remove(savedTask).put(task, task);
+                if (task instanceof SubTask subtask) {
+                    subtasks = subtasks.put(subtask.getId(), subtask);
+                    epics = moveSubtask(epics, copied, (SubTask) savedTask, subtask);
+                } else {
+                    tasks = tasks.put(task.getId(), task);
+                }
+            }
+            snapshot = new Snapshot(tasks, epics, subtasks, prioritized);
+        }
+    }
+
+    @Override
+    public void removeTask(int id) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Task task = current.tasks.get(id);
+            if (task != null) {
+                scheduleIndex.remove(id);
+                snapshot = new Snapshot(current.tasks.remove(id), current.epics, current.subtasks,
+                        current.prioritized.remove(task));
+                historyManager.remove(id);
+            }
+        }
+    }
+
+    @Override
+    public void removeEpic(int id) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Epic epic = current.epics.get(id);
+            if (epic != null) {
+                PersistentTreeMap<Integer, SubTask> subtasks = current.subtasks;
+                PersistentTreeMap<Task, Task> prioritized = current.prioritized;
+                for (int i = 0; i < epic.getSubTaskCount(); i++) {
+                    int subtaskId = epic.getSubTaskId(i);
+                    SubTask subTask = subtasks.get(subtaskId);
+                    if (subTask != null) {
+                        subtasks = subtasks.remove(subtaskId);
+                        prioritized = prioritized.remove(subTask);
+                        scheduleIndex.remove(subtaskId);
+                        historyManager.remove(subtaskId);
+                    }
+                }
+                snapshot = new Snapshot(current.tasks, current.epics.remove(id), subtasks, prioritized);
+                historyManager.remove(id);
+            }
+        }
+    }
+
+    @Override
+    public void removeSubtask(int id) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            SubTask subtask = current.subtasks.get(id);
+            if (subtask != null) {
+                scheduleIndex.remove(id);
+                PersistentTreeMap<Integer, Epic> epics = editEpic(current.epics, new IntArraySet(),
+                        subtask.getEpicId(), copy -> copy.removeSubTask(id));
+                snapshot = new Snapshot(current.tasks, epics, current.subtasks.remove(id),
+                        current.prioritized.remove(subtask));
+                historyManager.remove(id);
+            }
+        }
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            PersistentTreeMap<Task, Task> prioritized = current.prioritized;
+            for (Task task : current.tasks.values()) {
+                prioritized = prioritized.remove(task);
+                scheduleIndex.remove(task.getId());
+                historyManager.remove(task.getId());
+            }
+            snapshot = new Snapshot(current.tasks.clear(), current.epics, current.subtasks, prioritized);
+        }
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            PersistentTreeMap<Task, Task> prioritized = current.prioritized;
+            for (SubTask subtask : current.subtasks.values()) {
+                prioritized = prioritized.remove(subtask);
+                scheduleIndex.remove(subtask.getId());
+                historyManager.remove(subtask.getId());
+            }
+            for (Epic epic : current.epics.values()) {
+                historyManager.remove(epic.getId());
+            }
+            snapshot = new Snapshot(current.tasks, current.epics.clear(), current.subtasks.clear(), prioritized);
+        }
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            PersistentTreeMap<Task, Task> prioritized = current.prioritized;
+            for (SubTask subtask : current.subtasks.values()) {
+                prioritized = prioritized.remove(subtask);
+                scheduleIndex.remove(subtask.getId());
+                historyManager.remove(subtask.getId());
+            }
+            PersistentTreeMap<Integer, Epic> epics = current.epics;
+            IntArraySet copied = new IntArraySet();
+            for (Epic epic : current.epics.values()) {
+                epics = editEpic(epics, copied, epic.getId(), Epic::clearSubTasks);
+            }
+            snapshot = new Snapshot(current.tasks, epics, current.subtasks.clear(), prioritized);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    @Override
+    public HistoryPage getHistoryAfter(long after, int limit) {
+        return historyManager.getHistoryAfter(after, limit);
+    }
+
+    @Override
+    public List<SubTask> getSubtasksOfEpic(int epicId) {
+        Snapshot current = snapshot;
+        Epic epic = current.epics.get(epicId);
+        if (epic == null) {
+            return new ArrayList<>();
+        }
+        List<SubTask> result = new ArrayList<>(epic.getSubTaskCount());
+        epic.forEachSubTask(subTaskId -> {
+            SubTask subTask = current.subtasks.get(subTaskId);
+            if (subTask != null) {
+                result.add(subTask);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public List<Task> getPriorityTasks() {
+        return snapshot.prioritized.keys();
+    }
+
+    @Override
+    public List<Task> getPriorityTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        PersistentTreeMap<Task, Task> prioritized = snapshot.prioritized;
+        if (from == null && to == null) {
+            return prioritized.keys().subList(0, Math.min(limit, prioritized.size()));
+        }
+        int fromIndex = from == null ? 0 : prioritized.rank(scheduleProbe(from));
+        int toIndex = prioritized.rank(scheduleProbe(to));
+        if (fromIndex >= toIndex) {
+            return new ArrayList<>();
+        }
+        return prioritized.keys().subList(fromIndex, fromIndex + Math.min(limit, toIndex - fromIndex));
+    }
+
+    @Override
+    public List<Task> getPriorityTasksAfter(LocalDateTime afterStart, int afterId, int limit) {
+        PersistentTreeMap<Task, Task> prioritized = snapshot.prioritized;
+        int fromIndex = 0;
+        if (afterId > 0) {
+            Task cursor = new Task(afterId, null, null, null, afterStart, null);
+            fromIndex = prioritized.rank(cursor) + (prioritized.containsKey(cursor) ? 1 : 0);
+        }
+        int toIndex = fromIndex + Math.min(limit, prioritized.size() - fromIndex);
+        return prioritized.keys().subList(fromIndex, toIndex);
+    }
+
+    @Override
+    public List<Task> findTasks(TaskQuery query) {
+        Snapshot current = snapshot;
+        List<Task> result = new ArrayList<>();
+        if (query.getEpicId() != null) {
+            Epic epic = current.epics.get(query.getEpicId());
+            if (epic != null) {
+                epic.forEachSubTask(subtaskId -> addIfMatches(current.subtasks.get(subtaskId), query, result));
+            }
+            return result;
+        }
+        if (query.getType() == null || query.getType() == TaskType.TASK) {
+            collect(current.tasks.values(), query, result);
+        }
+        if (query.getType() == null || query.getType() == TaskType.SUBTASK) {
+            collect(current.subtasks.values(), query, result);
+        }
+        if (query.getType() == null || query.getType() == TaskType.EPIC) {
+            collect(current.epics.values(), query, result);
+        }
+        return result;
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(LocalDateTime from, Duration duration, int count) {
+        PersistentTreeMap<Task, Task> prioritized = snapshot.prioritized;
+        return SlotFinder.find(prioritized.keys(), prioritized.rank(scheduleProbe(from)), from, duration, count);
+    }
+
+    private void collect(List<? extends Task> source, TaskQuery query, List<Task> result) {
+        for (Task task : source) {
+            addIfMatches(task, query, result);
+        }
+    }
+
+    private void addIfMatches(Task task, TaskQuery query, List<Task> result) {
+        if (query.matches(task)) {
+            result.add(task);
+        }
+    }
+
+    private <T extends Task> List<T> page(PersistentTreeMap<Integer, T> source, int afterId, int limit) {
+        int fromIndex = afterId == Integer.MAX_VALUE ? source.size() : source.rank(afterId + 1);
+        int toIndex = fromIndex + Math.min(limit, source.size() - fromIndex);
+        return source.values().subList(fromIndex, toIndex);
+    }
+
+    private PersistentTreeMap<Integer, Epic> moveSubtask(PersistentTreeMap<Integer, Epic> epics, IntArraySet copied,
+                                                         SubTask savedSubtask, SubTask subtask) {
+        if (savedSubtask.getEpicId() != subtask.getEpicId()) {
+            epics = editEpic(epics, copied, savedSubtask.getEpicId(), copy -> copy.removeSubTask(subtask.getId()));
+            return editEpic(epics, copied, subtask.getEpicId(), copy -> copy.addSubTask(subtask));
+        }
+        return editEpic(epics, copied, subtask.getEpicId(), copy -> copy.updateSubTask(subtask));
+    }
+
+    private PersistentTreeMap<Integer, Epic> editEpic(PersistentTreeMap<Integer, Epic> epics, IntArraySet copied,
+                                                      int epicId, Consumer<Epic> change) {
+        Epic epic = epics.get(epicId);
+        if (epic == null) {
+            return epics;
+        }
+        if (copied.add(epicId)) {
+            epic = new Epic(epic, epic.getName(), epic.getDescription());
+            epics = epics.put(epicId, epic);
+        }
+        change.accept(epic);
+        return epics;
+    }
+
+    private void rename(Epic epic, Epic source) {
+        epic.setName(source.getName());
+        epic.setDescription(source.getDescription());
+    }
+
+    private Task scheduleProbe(LocalDateTime startTime) {
+        return new Task(Integer.MIN_VALUE, null, null, null, startTime, null);
+    }
+
+    private void addToSchedule(Task task) {
+        if (task.getStartTime() != null && task.getDuration() != null) {
+            scheduleIndex.add(task.getId(), task.getStartTime(), task.getEndTime());
+        }
+    }
+
+    private boolean hasOverlaps(Task newTask) {
+        if (newTask.getStartTime() == null || newTask.getDuration() == null) {
+            return false;
+        }
+
+        LocalDateTime startTime = newTask.getStartTime();
+        LocalDateTime endTime = startTime.plus(newTask.getDuration());
+        return scheduleIndex.overlaps(startTime, endTime, newTask.getId());
+    }
+
+    private static final class Snapshot {
+
+        private final PersistentTreeMap<Integer, Task> tasks;
+        private final PersistentTreeMap<Integer, Epic> epics;
+        private final PersistentTreeMap<Integer, SubTask> subtasks;
+        private final PersistentTreeMap<Task, Task> prioritized;
+
+        private Snapshot(PersistentTreeMap<Integer, Task> tasks, PersistentTreeMap<Integer, Epic> epics,
+                         PersistentTreeMap<Integer, SubTask> subtasks, PersistentTreeMap<Task, Task> prioritized) {
+            this.tasks = tasks;
+            this.epics = epics;
+            this.subtasks = subtasks;
+            this.prioritized = prioritized;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package service.managers;
+import model.Task;
+import java.util.List;
+
+public class SynchronizedHistoryManager implements HistoryManager {
+
+    private final HistoryManager delegate;
+
+    public SynchronizedHistoryManager(HistoryManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        delegate.add(task);
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        delegate.remove(id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public synchronized HistoryPage getHistoryAfter(long after, int limit) {
+        return delegate.getHistoryAfter(after, limit);
+    }
+}
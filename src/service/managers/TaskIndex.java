@@ -0,0 +1,64 @@
+package service.managers;
+import model.Task;
+import model.enums.Status;
+import model.enums.TaskType;
+import util.IntArraySet;
+import util.IntSortedMap;
+import java.util.EnumMap;
+import java.util.Map;
+
+class TaskIndex {
+
+    private final Map<TaskType, Map<Status, IntArraySet>> byStatus = new EnumMap<>(TaskType.class);
+    private final Map<TaskType, IntSortedMap<Task>> byId = new EnumMap<>(TaskType.class);
+
+    TaskIndex() {
+        for (TaskType type : TaskType.values()) {
+            Map<Status, IntArraySet> statuses = new EnumMap<>(Status.class);
+            for (Status status : Status.values()) {
+                statuses.put(status, new IntArraySet());
+            }
+            byStatus.put(type, statuses);
+            byId.put(type, new IntSortedMap<>());
+        }
+    }
+
+    void update(Task task) {
+        for (IntArraySet ids : byStatus.get(task.getType()).values()) {
+            ids.remove(task.getId());
+        }
+        if (task.getStatus() != null) {
+            byStatus.get(task.getType()).get(task.getStatus()).add(task.getId());
+        }
+        byId.get(task.getType()).put(task.getId(), task);
+    }
+
+    void add(Task task) {
+        if (task.getStatus() != null) {
+            byStatus.get(task.getType()).get(task.getStatus()).add(task.getId());
+        }
+        byId.get(task.getType()).put(task.getId(), task);
+    }
+
+    void remove(TaskType type, int id) {
+        for (IntArraySet ids : byStatus.get(type).values()) {
+            ids.remove(id);
+        }
+        byId.get(type).remove(id);
+    }
+
+    void clear(TaskType type) {
+        for (IntArraySet ids : byStatus.get(type).values()) {
+            ids.clear();
+        }
+        byId.get(type).clear();
+    }
+
+    IntArraySet ids(TaskType type, Status status) {
+        return byStatus.get(type).get(status);
+    }
+
+    IntSortedMap<Task> ordered(TaskType type) {
+        return byId.get(type);
+    }
+}
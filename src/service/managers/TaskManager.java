@@ -2,6 +2,9 @@ package service.managers;
 import model.Epic;
 import model.SubTask;
 import model.Task;
+import model.TimeSlot;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TaskManager {
@@ -12,12 +15,20 @@ public interface TaskManager {
 
     List<SubTask> getAllSubtasks();
 
+    List<Task> getTasksAfter(int afterId, int limit);
+
+    List<Epic> getEpicsAfter(int afterId, int limit);
+
+    List<SubTask> getSubtasksAfter(int afterId, int limit);
+
     Task getTask(int id);
 
     Epic getEpic(int id);
 
     SubTask getSubtask(int id);
 
+    Task findTask(int id);
+
     void addTask(Task task);
 
     void addEpic(Epic epic);
@@ -30,6 +41,10 @@ public interface TaskManager {
 
     void updateSubtask(SubTask subtask);
 
+    void addAll(List<? extends Task> batch);
+
+    void updateAll(List<? extends Task> batch);
+
     void removeTask(int id);
 
     void removeEpic(int id);
@@ -44,8 +59,18 @@ public interface TaskManager {
 
     List<Task> getHistory();
 
+    HistoryPage getHistoryAfter(long after, int limit);
+
     List<SubTask> getSubtasksOfEpic(int epicId);
 
     List<Task> getPriorityTasks();
 
+    List<Task> getPriorityTasks(LocalDateTime from, LocalDateTime to, int limit);
+
+    List<Task> getPriorityTasksAfter(LocalDateTime afterStart, int afterId, int limit);
+
+    List<Task> findTasks(TaskQuery query);
+
+    List<TimeSlot> findFreeSlots(LocalDateTime from, Duration duration, int count);
+
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package service.managers;
+import model.SubTask;
+import model.Task;
+import model.enums.Status;
+import model.enums.TaskType;
+import java.time.LocalDateTime;
+
+public class TaskQuery {
+
+    private final TaskType type;
+    private final Status status;
+    private final Integer epicId;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public TaskQuery(TaskType type, Status status, Integer epicId, LocalDateTime from, LocalDateTime to) {
+        this.type = type;
+        this.status = status;
+        this.epicId = epicId;
+        this.from = from;
+        this.to = to;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Integer getEpicId() {
+        return epicId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public boolean hasTimeWindow() {
+        return from != null || to != null;
+    }
+
+    public boolean matches(Task task) {
+        if (task == null) {
+            return false;
+        }
+        if (type != null && task.getType() != type) {
+            return false;
+        }
+        if (status != null && task.getStatus() != status) {
+            return false;
+        }
+        if (epicId != null && !(task instanceof SubTask subTask && subTask.getEpicId() == epicId)) {
+            return false;
+        }
+        if (hasTimeWindow()) {
+            LocalDateTime startTime = task.getStartTime();
+            if (startTime == null) {
+                return false;
+            }
+            if (from != null && startTime.isBefore(from)) {
+                return false;
+            }
+            return to == null || startTime.isBefore(to);
+        }
+        return true;
+    }
+}
@@ -1 +1,67 @@
-package service.server;import com.google.gson.Gson;import com.sun.net.httpserver.HttpServer;import service.Managers;import service.handlers.*;import service.managers.TaskManager;import java.io.IOException;import java.net.InetSocketAddress;public class HttpTaskServer {    private static final int PORT = 8080;    private static Gson gson;    private static HttpServer server;    private final TaskManager taskManager;    public HttpTaskServer() throws IOException {        this(Managers.getDefault());    }    public HttpTaskServer(TaskManager taskManager) throws IOException {        this.taskManager = taskManager;        gson = Managers.getGson();        server = HttpServer.create(new InetSocketAddress("127.0.0.1", PORT), 0);        server.createContext("/api/tasks",  new TaskHandler(taskManager));        server.createContext("/api/epics", new EpicHandler(taskManager));        server.createContext("/api/subtasks", new SubTaskHandler(taskManager));        server.createContext("/api/history", new HistoryHandler(taskManager));        server.createContext("/api/prioritized", new PrioritizedHandler(taskManager));    }    public void start() {        server.start();        System.out.println("Сервер запущен");    }    public void stop() {        server.stop(0);        System.out.println("Сервер отключен");    }}
\ No newline at end of file
+package service.server;
+import com.sun.net.httpserver.HttpServer;
+import service.Managers;
+import service.handlers.EpicHandler;
+import service.handlers.HistoryHandler;
+import service.handlers.PrioritizedHandler;
+import service.handlers.SlotHandler;
+import service.handlers.SubTaskHandler;
+import service.handlers.TaskHandler;
+import service.managers.SessionHistoryManager;
+import service.managers.TaskManager;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class HttpTaskServer {
+
+    private static final String HOST = "127.0.0.1";
+    private static final int PORT = 8080;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HttpTaskServer() throws IOException {
+        this(Managers.getDefault());
+    }
+
+    public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, 1);
+    }
+
+    public HttpTaskServer(TaskManager taskManager, int threads) throws IOException {
+        this(taskManager, threads, Managers.getSessionHistory());
+    }
+
+    public HttpTaskServer(TaskManager taskManager, int threads, SessionHistoryManager sessions) throws IOException {
+        this(taskManager, threads, sessions, HOST);
+    }
+
+    public HttpTaskServer(TaskManager taskManager, int threads, SessionHistoryManager sessions, String host)
+            throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным");
+        }
+        server = HttpServer.create(new InetSocketAddress(host, PORT), 0);
+        server.createContext("/api/tasks", new TaskHandler(taskManager, sessions));
+        server.createContext("/api/subtasks", new SubTaskHandler(taskManager, sessions));
+        server.createContext("/api/epics", new EpicHandler(taskManager, sessions));
+        server.createContext("/api/history", new HistoryHandler(taskManager, sessions));
+        server.createContext("/api/prioritized", new PrioritizedHandler(taskManager));
+        server.createContext("/api/slots", new SlotHandler(taskManager));
+        executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package util;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class IntArraySet {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] elements = new int[MIN_CAPACITY];
+    private int[] slots = new int[MIN_CAPACITY * 2];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return elements[index];
+    }
+
+    public boolean contains(int value) {
+        return slotOf(value) >= 0;
+    }
+
+    public boolean add(int value) {
+        if (contains(value)) {
+            return false;
+        }
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+            rebuildSlots(size * 4);
+        }
+        elements[size] = value;
+        insertSlot(value, size);
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int slot = slotOf(value);
+        if (slot < 0) {
+            return false;
+        }
+        int position = slots[slot] - 1;
+        deleteSlot(slot);
+        int last = --size;
+        if (position != last) {
+            int moved = elements[last];
+            elements[position] = moved;
+            slots[slotOf(moved)] = position + 1;
+        }
+        return true;
+    }
+
+    public void clear() {
+        elements = new int[MIN_CAPACITY];
+        slots = new int[MIN_CAPACITY * 2];
+        size = 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private int slotOf(int value) {
+        int mask = slots.length - 1;
+        int slot = hash(value) & mask;
+        while (slots[slot] != 0) {
+            if (elements[slots[slot] - 1] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insertSlot(int value, int position) {
+        int mask = slots.length - 1;
+        int slot = hash(value) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = position + 1;
+    }
+
+    private void deleteSlot(int gap) {
+        int mask = slots.length - 1;
+        int slot = (gap + 1) & mask;
+        while (slots[slot] != 0) {
+            int home = hash(elements[slots[slot] - 1]) & mask;
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                slots[gap] = slots[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[gap] = 0;
+    }
+
+    private static int hash(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void rebuildSlots(int capacity) {
+        slots = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            insertSlot(elements[i], i);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(elements[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
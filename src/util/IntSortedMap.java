@@ -0,0 +1,225 @@
+package util;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class IntSortedMap<V> {
+
+    private static final int MIN_CAPACITY = 8;
+    private static final int CHUNK_SIZE = 512;
+
+    private Chunk[] chunks = {new Chunk(MIN_CAPACITY)};
+    private int[] offsets = new int[1];
+    private int chunkCount = 1;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        int chunk = chunkFor(key);
+        return chunk < chunkCount && chunks[chunk].find(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int chunk = chunkFor(key);
+        if (chunk == chunkCount) {
+            return null;
+        }
+        int index = chunks[chunk].find(key);
+        return index >= 0 ? (V) chunks[chunk].values[index] : null;
+    }
+
+    public int keyAt(int index) {
+        checkIndex(index);
+        int chunk = chunkAt(index);
+        return chunks[chunk].keys[index - offsets[chunk]];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        checkIndex(index);
+        int chunk = chunkAt(index);
+        return (V) chunks[chunk].values[index - offsets[chunk]];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        Objects.requireNonNull(value, "value");
+        int chunk = Math.min(chunkFor(key), chunkCount - 1);
+        Chunk target = chunks[chunk];
+        int index = target.find(key);
+        if (index >= 0) {
+            V previous = (V) target.values[index];
+            target.values[index] = value;
+            return previous;
+        }
+        index = -index - 1;
+        if (target.size == CHUNK_SIZE) {
+            if (index == CHUNK_SIZE && chunk == chunkCount - 1) {
+                insertChunk(chunk + 1, new Chunk(MIN_CAPACITY));
+                chunk++;
+                index = 0;
+            } else {
+                split(chunk);
+                if (index > chunks[chunk].size) {
+                    index -= chunks[chunk].size;
+                    chunk++;
+                }
+            }
+            target = chunks[chunk];
+        }
+        target.insert(index, key, value);
+        shiftOffsets(chunk, 1);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int chunk = chunkFor(key);
+        if (chunk == chunkCount) {
+            return null;
+        }
+        Chunk target = chunks[chunk];
+        int index = target.find(key);
+        if (index < 0) {
+            return null;
+        }
+        V previous = (V) target.values[index];
+        target.remove(index);
+        shiftOffsets(chunk, -1);
+        if (target.size == 0 && chunkCount > 1) {
+            removeChunk(chunk);
+        }
+        return previous;
+    }
+
+    public void clear() {
+        chunks = new Chunk[]{new Chunk(MIN_CAPACITY)};
+        offsets = new int[1];
+        chunkCount = 1;
+        size = 0;
+    }
+
+    public int indexAfter(int key) {
+        int chunk = chunkFor(key);
+        if (chunk == chunkCount) {
+            return size;
+        }
+        int index = chunks[chunk].find(key);
+        return offsets[chunk] + (index >= 0 ? index + 1 : -index - 1);
+    }
+
+    private int chunkFor(int key) {
+        Chunk last = chunks[chunkCount - 1];
+        if (last.size > 0 && last.keys[last.size - 1] < key) {
+            return chunkCount;
+        }
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Chunk chunk = chunks[middle];
+            if (chunk.size > 0 && chunk.keys[chunk.size - 1] < key) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private int chunkAt(int index) {
+        int chunk = Arrays.binarySearch(offsets, 0, chunkCount, index);
+        if (chunk < 0) {
+            return -chunk - 2;
+        }
+        while (chunks[chunk].size == 0) {
+            chunk++;
+        }
+        return chunk;
+    }
+
+    private void split(int chunk) {
+        Chunk full = chunks[chunk];
+        Chunk tail = new Chunk(CHUNK_SIZE);
+        int half = full.size / 2;
+        tail.size = full.size - half;
+        System.arraycopy(full.keys, half, tail.keys, 0, tail.size);
+        System.arraycopy(full.values, half, tail.values, 0, tail.size);
+        Arrays.fill(full.values, half, full.size, null);
+        full.size = half;
+        insertChunk(chunk + 1, tail);
+        offsets[chunk + 1] = offsets[chunk] + half;
+    }
+
+    private void insertChunk(int position, Chunk chunk) {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            offsets = Arrays.copyOf(offsets, chunkCount * 2);
+        }
+        System.arraycopy(chunks, position, chunks, position + 1, chunkCount - position);
+        System.arraycopy(offsets, position, offsets, position + 1, chunkCount - position);
+        chunks[position] = chunk;
+        offsets[position] = position == chunkCount ? size : offsets[position + 1];
+        chunkCount++;
+    }
+
+    private void removeChunk(int position) {
+        System.arraycopy(chunks, position + 1, chunks, position, chunkCount - position - 1);
+        System.arraycopy(offsets, position + 1, offsets, position, chunkCount - position - 1);
+        chunks[--chunkCount] = null;
+    }
+
+    private void shiftOffsets(int chunk, int delta) {
+        for (int i = chunk + 1; i < chunkCount; i++) {
+            offsets[i] += delta;
+        }
+        size += delta;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static final class Chunk {
+
+        private int[] keys;
+        private Object[] values;
+        private int size;
+
+        private Chunk(int capacity) {
+            keys = new int[capacity];
+            values = new Object[capacity];
+        }
+
+        private int find(int key) {
+            return Arrays.binarySearch(keys, 0, size, key);
+        }
+
+        private void insert(int index, int key, Object value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.min(CHUNK_SIZE, size * 2));
+                values = Arrays.copyOf(values, Math.min(CHUNK_SIZE, size * 2));
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            keys[index] = key;
+            values[index] = value;
+            size++;
+        }
+
+        private void remove(int index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            values[--size] = null;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package util;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BiPredicate;
+
+public class IntervalTree {
+
+    private final IntObjectMap<Node> nodesById = new IntObjectMap<>();
+    private Node root;
+
+    public void add(int id, LocalDateTime start, LocalDateTime end) {
+        remove(id);
+        Node node = new Node(id, start, end);
+        root = insert(root, node);
+        nodesById.put(id, node);
+    }
+
+    public void remove(int id) {
+        Node node = nodesById.remove(id);
+        if (node != null) {
+            root = delete(root, node.start, node.id);
+        }
+    }
+
+    public void build(int[] ids, LocalDateTime[] starts, LocalDateTime[] ends, int count) {
+        if (root != null) {
+            throw new IllegalStateException("Bulk build requires an empty tree");
+        }
+        Node[] nodes = new Node[count];
+        for (int i = 0; i < count; i++) {
+            nodes[i] = new Node(ids[i], starts[i], ends[i]);
+            if (i > 0 && compare(starts[i], ids[i], nodes[i - 1]) <= 0) {
+                throw new IllegalArgumentException("Intervals must be sorted by start and id");
+            }
+        }
+        nodesById.ensureCapacity(count);
+        for (Node node : nodes) {
+            nodesById.put(node.id, node);
+        }
+        root = buildBalanced(nodes, 0, count);
+    }
+
+    public void clear() {
+        nodesById.clear();
+        root = null;
+    }
+
+    public int size() {
+        return nodesById.size();
+    }
+
+    public boolean contains(int id) {
+        return nodesById.containsKey(id);
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end, int excludedId) {
+        return findOverlap(root, start, end, excludedId);
+    }
+
+    public LocalDateTime latestEnd(LocalDateTime before) {
+        LocalDateTime latest = null;
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(before)) {
+                latest = later(latest, node.end);
+                if (node.left != null) {
+                    latest = later(latest, node.left.maxEnd);
+                }
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return latest;
+    }
+
+    public void forEachFrom(LocalDateTime from, BiPredicate<LocalDateTime, LocalDateTime> action) {
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(from)) {
+                node = node.right;
+            } else {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+        while (!stack.isEmpty()) {
+            node = stack.pop();
+            if (!action.test(node.start, node.end)) {
+                return;
+            }
+            for (Node next = node.right; next != null; next = next.left) {
+                stack.push(next);
+            }
+        }
+    }
+
+    private LocalDateTime later(LocalDateTime first, LocalDateTime second) {
+        return first == null || second.isAfter(first) ? second : first;
+    }
+
+    private boolean findOverlap(Node node, LocalDateTime start, LocalDateTime end, int excludedId) {
+        while (node != null && node.maxEnd.isAfter(start)) {
+            if (node.id != excludedId && node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                if (findOverlap(node.left, start, end, excludedId)) {
+                    return true;
+                }
+            }
+            if (!node.start.isBefore(end)) {
+                return false;
+            }
+            node = node.right;
+        }
+        return false;
+    }
+
+    private Node buildBalanced(Node[] nodes, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Node node = nodes[middle];
+        node.left = buildBalanced(nodes, from, middle);
+        node.right = buildBalanced(nodes, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.start, newNode.id, node) < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, LocalDateTime start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private int compare(LocalDateTime start, int id, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Integer.compare(id, node.id);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+
+        private final int id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(int id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
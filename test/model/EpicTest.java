@@ -0,0 +1,114 @@
+package model;
+
+import model.enums.Status;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EpicTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void shouldResetAggregatesWhenSubtasksCleared() {
+        Epic epic = new Epic(1, "Epic 1", "Description 1", Status.NEW);
+        epic.addSubTask(new SubTask(2, "SubTask 1", "Description 1", Status.DONE, BASE, Duration.ofMinutes(10), 1));
+
+        assertEquals(Status.DONE, epic.getStatus());
+        assertEquals(BASE.plusMinutes(10), epic.getEndTime());
+
+        epic.clearSubTasks();
+
+        assertEquals(Status.NEW, epic.getStatus(), "Эпик без подзадач должен иметь статус NEW.");
+        assertNull(epic.getStartTime());
+        assertNull(epic.getEndTime());
+        assertEquals(Duration.ZERO, epic.getDuration());
+        assertTrue(epic.getSubTasks().isEmpty());
+    }
+
+    @Test
+    void shouldMatchFullRescanOnRandomOperations() {
+        Random random = new Random(7);
+        Epic epic = new Epic(1, "Epic 1", "Description 1", Status.NEW);
+        Map<Integer, SubTask> current = new LinkedHashMap<>();
+        Status[] statuses = Status.values();
+
+        for (int step = 0; step < 10_000; step++) {
+            int id = 2 + random.nextInt(50);
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                epic.removeSubTask(id);
+                current.remove(id);
+            } else if (operation == 1 && current.containsKey(id)) {
+                SubTask subTask = current.get(id);
+                subTask.setStatus(statuses[random.nextInt(statuses.length)]);
+                subTask.setStartTime(randomStart(random));
+                subTask.setDuration(Duration.ofMinutes(random.nextInt(90)));
+                epic.updateSubTask(subTask);
+            } else {
+                SubTask subTask = new SubTask(id, "SubTask " + id, "Description", statuses[random.nextInt(statuses.length)],
+                        randomStart(random), Duration.ofMinutes(random.nextInt(90)), epic.getId());
+                if (current.containsKey(id)) {
+                    epic.updateSubTask(subTask);
+                } else {
+                    epic.addSubTask(subTask);
+                }
+                current.put(id, subTask);
+            }
+
+            assertMatchesRescan(epic, new ArrayList<>(current.values()));
+        }
+    }
+
+    private LocalDateTime randomStart(Random random) {
+        return random.nextInt(10) == 0 ? null : BASE.plusMinutes(random.nextInt(100_000));
+    }
+
+    private void assertMatchesRescan(Epic epic, List<SubTask> subTasks) {
+        Duration duration = Duration.ZERO;
+        LocalDateTime startTime = null;
+        LocalDateTime endTime = null;
+        boolean hasInProgress = false;
+        boolean hasNotDone = false;
+
+        for (SubTask subTask : subTasks) {
+            if (subTask.getStartTime() != null) {
+                if (startTime == null || subTask.getStartTime().isBefore(startTime)) {
+                    startTime = subTask.getStartTime();
+                }
+                if (endTime == null || subTask.getEndTime().isAfter(endTime)) {
+                    endTime = subTask.getEndTime();
+                }
+            }
+            duration = duration.plus(subTask.getDuration());
+            if (subTask.getStatus() == Status.IN_PROGRESS) {
+                hasInProgress = true;
+            } else if (subTask.getStatus() != Status.DONE) {
+                hasNotDone = true;
+            }
+        }
+
+        Status status;
+        if (subTasks.isEmpty()) {
+            status = Status.NEW;
+        } else if (hasInProgress) {
+            status = Status.IN_PROGRESS;
+        } else if (!hasNotDone) {
+            status = Status.DONE;
+        } else {
+            status = Status.NEW;
+        }
+
+        assertEquals(status, epic.getStatus(), "Статус эпика не совпадает с пересчётом.");
+        assertEquals(duration, epic.getDuration(), "Продолжительность эпика не совпадает с пересчётом.");
+        assertEquals(startTime, epic.getStartTime(), "Время начала эпика не совпадает с пересчётом.");
+        assertEquals(endTime, epic.getEndTime(), "Время завершения эпика не совпадает с пересчётом.");
+        assertEquals(subTasks.size(), epic.getSubTasks().size(), "Количество подзадач не совпадает.");
+    }
+}
@@ -0,0 +1,75 @@
+package service;
+
+import model.Task;
+import model.enums.Status;
+import org.junit.jupiter.api.Test;
+import service.managers.BufferedHistoryManager;
+import service.managers.InMemoryHistoryManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferedHistoryManagerTest {
+
+    private static final int THREADS = 8;
+    private static final int VIEWS = 5_000;
+
+    @Test
+    void shouldKeepViewOrderOfSingleThread() {
+        BufferedHistoryManager historyManager = new BufferedHistoryManager(new InMemoryHistoryManager(), 4);
+        for (int id = 1; id <= 100; id++) {
+            historyManager.add(task(id));
+        }
+        historyManager.add(task(50));
+        historyManager.remove(1);
+
+        List<Task> history = historyManager.getHistory();
+        assertEquals(99, history.size(), "Просмотры одного потока не должны теряться.");
+        assertEquals(task(2), history.get(0), "Удаление должно применяться после накопленных просмотров.");
+        assertEquals(task(50), history.get(98), "Повторный просмотр должен переносить задачу в конец.");
+        assertEquals(List.of(task(50)), historyManager.getHistoryAfter(100, 10).getTasks());
+        assertEquals(0, historyManager.getDroppedCount());
+    }
+
+    @Test
+    void shouldAccountForEveryConcurrentView() throws Exception {
+        BufferedHistoryManager historyManager = new BufferedHistoryManager(new InMemoryHistoryManager(), 2);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            int offset = thread * VIEWS;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 1; i <= VIEWS; i++) {
+                    historyManager.add(task(offset + i));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Task> history = historyManager.getHistory();
+        Set<Task> distinct = new HashSet<>(history);
+        assertEquals(history.size(), distinct.size(), "Задачи в истории не должны повторяться.");
+        assertEquals(THREADS * VIEWS, history.size() + historyManager.getDroppedCount(),
+                "Каждый просмотр должен либо попасть в историю, либо учитываться как отброшенный.");
+    }
+
+    private static Task task(int id) {
+        return new Task(id, "Task " + id, "Description " + id, Status.NEW, null, Duration.ZERO);
+    }
+}
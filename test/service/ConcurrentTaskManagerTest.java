@@ -0,0 +1,128 @@
+package service;
+
+import exception.ValidationException;
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import model.enums.Status;
+import org.junit.jupiter.api.Test;
+import service.managers.ConcurrentTaskManager;
+import service.managers.InMemoryHistoryManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 2_000;
+
+    @Override
+    protected ConcurrentTaskManager createTaskManager() {
+        return new ConcurrentTaskManager();
+    }
+
+    @Test
+    void shouldStayConsistentUnderConcurrentWrites() throws Exception {
+        Epic epic = new Epic(1, "Epic 1", "Description 1", Status.NEW);
+        taskManager.addEpic(epic);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            int slot = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    LocalDateTime startTime = base.plusMinutes(10L * (i * THREADS + slot / 2));
+                    Task task = i % 2 == 0
+                            ? new Task(0, "Task", "Description", Status.NEW, startTime, Duration.ofMinutes(5))
+                            : new SubTask(0, "SubTask", "Description", Status.DONE, startTime, Duration.ofMinutes(5), epic.getId());
+                    try {
+                        if (task instanceof SubTask subTask) {
+                            taskManager.addSubtask(subTask);
+                        } else {
+                            taskManager.addTask(task);
+                        }
+                    } catch (ValidationException e) {
+                        rejected.incrementAndGet();
+                    }
+                    taskManager.getPriorityTasks();
+                    taskManager.getEpic(epic.getId());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int stored = taskManager.getAllTasks().size() + taskManager.getAllSubtasks().size();
+        assertEquals(THREADS * OPERATIONS / 2, stored, "Из каждой пары потоков должна сохраниться ровно одна задача на слот.");
+        assertEquals(THREADS * OPERATIONS / 2, rejected.get(), "Пересекающиеся задачи должны отклоняться.");
+
+        List<Task> prioritized = taskManager.getPriorityTasks();
+        assertEquals(stored, prioritized.size(), "Приоритетный список должен содержать все задачи.");
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < prioritized.size(); i++) {
+            assertTrue(ids.add(prioritized.get(i).getId()), "Идентификаторы должны быть уникальными.");
+            if (i > 0) {
+                assertFalse(prioritized.get(i).getStartTime().isBefore(prioritized.get(i - 1).getEndTime()),
+                        "Задачи в расписании не должны пересекаться.");
+            }
+        }
+        assertEquals(taskManager.getAllSubtasks().size(), taskManager.getSubtasksOfEpic(epic.getId()).size(),
+                "Все подзадачи должны быть привязаны к эпику.");
+        assertEquals(Status.DONE, taskManager.getEpic(epic.getId()).getStatus());
+    }
+
+    @Test
+    void shouldGuardSuppliedHistoryAgainstConcurrentReads() throws Exception {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(new InMemoryHistoryManager());
+        int count = 64;
+        for (int i = 0; i < count; i++) {
+            manager.addTask(new Task(0, "Task " + i, "Description", Status.NEW, null, Duration.ZERO));
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            int offset = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS * 25; i++) {
+                    manager.getTask(1 + (i * THREADS + offset) % count);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Task> history = manager.getHistory();
+        Set<Integer> ids = new HashSet<>();
+        for (Task task : history) {
+            assertTrue(ids.add(task.getId()), "История не должна содержать повторов.");
+        }
+        assertEquals(count, history.size(), "История должна содержать каждую просмотренную задачу.");
+    }
+}
@@ -3,14 +3,26 @@ package service;
 import model.Epic;
 import model.SubTask;
 import model.Task;
+import exception.ManagerSaveException;
+import exception.ValidationException;
 import model.enums.Status;
+import model.enums.TaskType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import service.file.FileBackedTaskManager;
+import service.file.SnapshotFormat;
+import service.managers.TaskQuery;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
@@ -168,6 +180,302 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
                 "Статус эпика должен обновляться в зависимости от статусов подзадач.");
     }
 
-}
+    @Test
+    void shouldPersistBatchOnce() {
+        List<Task> batch = List.of(
+                new Task(0, "Task 1", "Description", Status.NEW, LocalDateTime.of(2024, 2, 1, 9, 0), Duration.ofMinutes(30)),
+                new Task(0, "Task 2", "Description", Status.NEW, LocalDateTime.of(2024, 2, 1, 10, 0), Duration.ofMinutes(30)));
+        taskManager.addAll(batch);
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(2, loadedManager.getAllTasks().size(), "Пакет должен сохраняться в файл.");
+        assertEquals("Task 2", loadedManager.getTask(batch.get(1).getId()).getName(), "Задача из пакета не восстановлена.");
+    }
+
+    @Test
+    void shouldSaveAndLoadBinarySnapshot() throws IOException {
+        taskManager.setSnapshotFormat(SnapshotFormat.BINARY);
+        Task task = new Task(0, "Задача, с запятой", null, Status.IN_PROGRESS,
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123456789), Duration.ofSeconds(90, 5));
+        taskManager.addTask(task);
+        Epic epic = new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(epic);
+        SubTask subtask = new SubTask(0, "Subtask 1", "Description 1", Status.DONE,
+                LocalDateTime.of(2024, 8, 1, 9, 0), Duration.ofMinutes(30), epic.getId());
+        taskManager.addSubtask(subtask);
+
+        assertNotEquals('i', Files.readAllBytes(tempFile.toPath())[0], "Снимок должен сохраняться в бинарном формате.");
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+        Task loadedTask = loadedManager.getTask(task.getId());
+
+        assertEquals(task.getName(), loadedTask.getName(), "Название задачи не совпадает.");
+        assertNull(loadedTask.getDescription(), "Пустое описание должно сохраняться.");
+        assertEquals(task.getStatus(), loadedTask.getStatus(), "Статус задачи не совпадает.");
+        assertEquals(task.getStartTime(), loadedTask.getStartTime(), "Время начала задачи не совпадает.");
+        assertEquals(task.getDuration(), loadedTask.getDuration(), "Продолжительность задачи не совпадает.");
+        assertEquals(subtask, loadedManager.getSubtask(subtask.getId()), "Подзадача не восстановлена.");
+        assertEquals(epic.getEndTime(), loadedManager.getEpic(epic.getId()).getEndTime(), "Окончание эпика не совпадает.");
+        assertEquals(Status.DONE, loadedManager.getEpic(epic.getId()).getStatus(), "Статус эпика не совпадает.");
+    }
+
+    @Test
+    void shouldKeepNullAndEmptyFieldsInBothFormats() {
+        Task blank = new Task(0, "", null, null, null, Duration.ZERO);
+        taskManager.addTask(blank);
+        Task unnamed = new Task(0, null, "", Status.DONE, null, Duration.ZERO);
+        taskManager.addTask(unnamed);
+
+        for (SnapshotFormat format : SnapshotFormat.values()) {
+            taskManager.setSnapshotFormat(format);
+            taskManager.compact();
+            FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+            Task loadedBlank = loadedManager.getTask(blank.getId());
+            Task loadedUnnamed = loadedManager.getTask(unnamed.getId());
+
+            assertEquals("", loadedBlank.getName(), "Пустое название должно оставаться пустым: " + format);
+            assertNull(loadedBlank.getDescription(), "Отсутствующее описание должно оставаться null: " + format);
+            assertNull(loadedBlank.getStatus(), "Отсутствующий статус должен оставаться null: " + format);
+            assertNull(loadedUnnamed.getName(), "Отсутствующее название должно оставаться null: " + format);
+            assertEquals("", loadedUnnamed.getDescription(), "Пустое описание должно оставаться пустым: " + format);
+            assertEquals(Status.DONE, loadedUnnamed.getStatus(), "Статус задачи не совпадает: " + format);
+        }
+    }
+
+    @Test
+    void shouldLoadCsvAndRewriteItAsBinary() {
+        Task task = new Task(0, "Task 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 9, 1, 9, 0), Duration.ofMinutes(30));
+        taskManager.addTask(task);
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+        loadedManager.setSnapshotFormat(SnapshotFormat.BINARY);
+        Task next = new Task(0, "Task 2", "Description 2", Status.NEW,
+                LocalDateTime.of(2024, 9, 1, 10, 0), Duration.ofMinutes(30));
+        loadedManager.addTask(next);
+        FileBackedTaskManager reloadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(List.of(task, next), reloadedManager.getAllTasks(), "Задачи из CSV должны переходить в бинарный снимок.");
+        assertTrue(next.getId() > task.getId(), "Идентификаторы не должны повторяться.");
+    }
+
+    @Test
+    void shouldRejectUnsupportedSnapshotVersion() throws IOException {
+        Files.write(tempFile.toPath(), new byte[]{0x54, 0x4B, 0x53, 0x42, 99, 0});
+
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(tempFile),
+                "Неизвестная версия снимка должна отклоняться.");
+    }
+
+    @Test
+    void shouldRejectCorruptStringLengthInBinarySnapshot() throws IOException {
+        taskManager.setSnapshotFormat(SnapshotFormat.BINARY);
+        taskManager.addTask(new Task(0, "Task 1", "Description 1", Status.NEW, null, Duration.ZERO));
+        byte[] bytes = Files.readAllBytes(tempFile.toPath());
+        bytes[8] = 0x7F;
+        Files.write(tempFile.toPath(), bytes);
+
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(tempFile),
+                "Повреждённая длина строки должна отклоняться как повреждение снимка.");
+    }
+
+    @Test
+    void shouldParseHandWrittenCsvSnapshot() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,description,status,startTime,duration,endTime,epicId\r\n"
+                + "3,epic,Эпик,Описание,new,,PT0S,,\r\n"
+                + "\r\n"
+                + "4,SUBTASK,Sub,Desc,done,2024-10-01T09:00:30.5,PT1.5S,2024-10-01T09:00:32,3\r\n"
+                + "5,TASK,Task,Desc,IN_PROGRESS,2024-10-01T10:00,PT1H30M,2024-10-01T11:30,\r\n");
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals("Эпик", loadedManager.getEpic(3).getName(), "Название эпика не совпадает.");
+        SubTask subtask = loadedManager.getSubtask(4);
+        assertEquals(LocalDateTime.of(2024, 10, 1, 9, 0, 30, 500_000_000), subtask.getStartTime(),
+                "Дробные секунды должны разбираться.");
+        assertEquals(Duration.ofMillis(1500), subtask.getDuration(), "Дробная продолжительность не совпадает.");
+        assertEquals(Status.DONE, subtask.getStatus(), "Статус подзадачи не совпадает.");
+        assertEquals(Duration.ofMinutes(90), loadedManager.getTask(5).getDuration(), "Продолжительность задачи не совпадает.");
+        assertEquals(List.of(4), loadedManager.getEpic(3).getSubTasks(), "Подзадача должна привязываться к эпику.");
+    }
+
+    @Test
+    void shouldRejectMalformedCsvLine() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,description,status,startTime,duration,endTime,epicId\n"
+                + "x,TASK,Task,Desc,NEW,,,,\n");
 
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(tempFile),
+                "Некорректная строка должна отклоняться.");
+    }
+
+    @Test
+    void shouldLoadLargeSnapshotThroughMapping() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            batch.add(new Task(0, "Task " + i, "Description " + i, Status.NEW,
+                    LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(10L * i), Duration.ofMinutes(5)));
+        }
+        taskManager.addAll(batch);
+
+        for (SnapshotFormat format : SnapshotFormat.values()) {
+            taskManager.setSnapshotFormat(format);
+            taskManager.compact();
+            assertTrue(tempFile.length() >= 1024 * 1024 || format == SnapshotFormat.BINARY,
+                    "CSV-снимок должен превышать порог отображения.");
+            FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+            assertEquals(batch, loadedManager.getAllTasks(), "Все задачи должны восстанавливаться: " + format);
+            assertEquals(batch.get(19_999).getStartTime(), loadedManager.getTask(batch.get(19_999).getId()).getStartTime(),
+                    "Время начала не совпадает: " + format);
+        }
+    }
+
+    @Test
+    void shouldRebuildIndexesAfterChunkedLoad() {
+        taskManager.setSnapshotFormat(SnapshotFormat.BINARY);
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            batch.add(new Epic(0, "Epic " + i, "Description " + i, Status.NEW, Duration.ZERO));
+        }
+        taskManager.addAll(batch);
+        List<Task> subtasks = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            subtasks.add(new SubTask(0, "Subtask " + i, "Description " + i, i % 2 == 0 ? Status.DONE : Status.NEW,
+                    LocalDateTime.of(2025, 6, 1, 0, 0).minusMinutes(10L * i), Duration.ofMinutes(5),
+                    batch.get(i % batch.size()).getId()));
+        }
+        taskManager.addAll(subtasks);
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(taskManager.getPriorityTasks(), loadedManager.getPriorityTasks(), "Порядок расписания должен совпадать.");
+        Epic epic = loadedManager.getEpic(batch.get(0).getId());
+        assertEquals(10, epic.getSubTaskCount(), "Подзадачи должны привязываться к эпику.");
+        assertEquals(taskManager.getEpic(epic.getId()).getStatus(), epic.getStatus(), "Статус эпика должен пересчитываться.");
+        assertEquals(taskManager.findTasks(new TaskQuery(TaskType.EPIC, Status.IN_PROGRESS, null, null, null)).size(),
+                loadedManager.findTasks(new TaskQuery(TaskType.EPIC, Status.IN_PROGRESS, null, null, null)).size(),
+                "Индекс статусов эпиков должен восстанавливаться.");
+        Task clashing = new Task(0, "Clash", "Description", Status.NEW,
+                LocalDateTime.of(2025, 6, 1, 0, 2), Duration.ofMinutes(5));
+        assertThrows(ValidationException.class, () -> loadedManager.addTask(clashing),
+                "Индекс пересечений должен восстанавливаться.");
+    }
+
+    @Test
+    void shouldQuoteSpecialCharactersInCsv() {
+        Task plain = new Task(0, "Имя, с запятой", "Строка \"в кавычках\"\nи перевод строки", Status.NEW,
+                null, Duration.ZERO);
+        taskManager.addTask(plain);
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            batch.add(new Task(0, "Task, " + i, "Line 1\r\n\"Line\" 2," + i, Status.NEW,
+                    LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(10L * i), Duration.ofMinutes(5)));
+        }
+        taskManager.addAll(batch);
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+        Task loadedTask = loadedManager.getTask(plain.getId());
+        assertEquals(plain.getName(), loadedTask.getName(), "Запятая в названии должна сохраняться.");
+        assertEquals(plain.getDescription(), loadedTask.getDescription(), "Кавычки и перевод строки должны сохраняться.");
+        assertNull(loadedTask.getStartTime(), "Задача без времени начала должна сохраняться.");
+        assertEquals(taskManager.getAllTasks(), loadedManager.getAllTasks(), "Все задачи должны восстанавливаться.");
+        Task last = batch.get(batch.size() - 1);
+        assertEquals(last.getDescription(), loadedManager.getTask(last.getId()).getDescription(),
+                "Поля с переводом строки не должны разрываться на границе фрагментов.");
+    }
+
+    @Test
+    void shouldParseQuotedCsvFields() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,description,status,startTime,duration,endTime,epicId\n"
+                + "1,TASK,\"Task \"\"one\"\"\",\"a,\r\nb\",NEW,,PT0S,,\n"
+                + "\"2\",\"TASK\",\"\",Plain,DONE,,,,\n");
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals("Task \"one\"", loadedManager.getTask(1).getName(), "Удвоенные кавычки должны разворачиваться.");
+        assertEquals("a,\r\nb", loadedManager.getTask(1).getDescription(), "Содержимое кавычек не должно изменяться.");
+        assertEquals("", loadedManager.getTask(2).getName(), "Пустое поле в кавычках должно разбираться.");
+        assertEquals(Status.DONE, loadedManager.getTask(2).getStatus(), "Поля в кавычках должны разбираться.");
+    }
 
+    @Test
+    void shouldRejectUnterminatedQuote() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,description,status,startTime,duration,endTime,epicId\n"
+                + "1,TASK,\"Task,Desc,NEW,,,,\n");
+
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(tempFile),
+                "Незакрытые кавычки должны отклоняться.");
+    }
+
+    @Test
+    void shouldRestoreHistoryAfterReload() {
+        Task first = new Task(0, "Task 1", "Description 1", Status.NEW, null, Duration.ZERO);
+        Task second = new Task(0, "Task 2", "Description 2", Status.NEW, null, Duration.ZERO);
+        Epic epic = new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO);
+        taskManager.addTask(first);
+        taskManager.addTask(second);
+        taskManager.addEpic(epic);
+        taskManager.getTask(second.getId());
+        taskManager.getTask(first.getId());
+        taskManager.getEpic(epic.getId());
+        taskManager.getTask(second.getId());
+        taskManager.removeTask(first.getId());
+        taskManager.close();
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(List.of(epic, second), loadedManager.getHistory(), "История должна восстанавливаться после перезапуска.");
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldCompactHistoryLog() {
+        Task first = new Task(0, "Task 1", "Description 1", Status.NEW, null, Duration.ZERO);
+        Task second = new Task(0, "Task 2", "Description 2", Status.NEW, null, Duration.ZERO);
+        taskManager.addTask(first);
+        taskManager.addTask(second);
+        for (int i = 0; i < 100_000; i++) {
+            taskManager.getTask(i % 2 == 0 ? second.getId() : first.getId());
+        }
+        taskManager.close();
+
+        File historyFile = new File(tempFile.getPath() + ".history");
+        assertTrue(historyFile.length() <= 64 * 1024 * Integer.BYTES, "Журнал истории должен сжиматься.");
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(List.of(second, first), loadedManager.getHistory(), "Порядок истории должен сохраняться после сжатия.");
+        assertEquals(2 * Integer.BYTES, historyFile.length(), "При загрузке журнал истории должен переписываться.");
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldKeepConcurrentViewsAcrossHistoryCompaction() throws Exception {
+        List<Task> added = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            Task task = new Task(0, "Task " + i, "Description", Status.NEW, null, Duration.ZERO);
+            taskManager.addTask(task);
+            added.add(task);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            int offset = thread;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    taskManager.getTask(added.get((i * 4 + offset) % added.size()).getId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        List<Task> history = taskManager.getHistory();
+        taskManager.close();
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(history, loadedManager.getHistory(), "Сжатие не должно терять просмотры из других потоков.");
+        loadedManager.close();
+    }
+}
@@ -0,0 +1,107 @@
+package service;
+
+import model.Task;
+import model.enums.Status;
+import org.junit.jupiter.api.Test;
+import service.managers.HistoryManager;
+import service.managers.HistoryPage;
+import service.managers.InMemoryHistoryManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryHistoryManagerTest {
+
+    @Test
+    void shouldEvictLeastRecentlyViewedTask() {
+        HistoryManager historyManager = new InMemoryHistoryManager(3);
+        for (int id = 1; id <= 4; id++) {
+            historyManager.add(task(id));
+        }
+        historyManager.add(task(2));
+        historyManager.add(task(5));
+
+        assertEquals(List.of(task(4), task(2), task(5)), historyManager.getHistory(),
+                "Из истории должны вытесняться давно просмотренные задачи.");
+        HistoryPage page = historyManager.getHistoryAfter(0, 2);
+        assertEquals(List.of(task(4), task(2)), page.getTasks());
+        assertEquals(List.of(task(5)), historyManager.getHistoryAfter(page.getCursor(), 10).getTasks(),
+                "Вытеснение не должно ломать ссылки.");
+    }
+
+    @Test
+    void shouldResumeAfterCursorTaskIsViewedAgainOrRemoved() {
+        HistoryManager historyManager = new InMemoryHistoryManager(4);
+        for (int id = 1; id <= 4; id++) {
+            historyManager.add(task(id));
+        }
+        HistoryPage page = historyManager.getHistoryAfter(0, 2);
+        assertEquals(List.of(task(1), task(2)), page.getTasks());
+
+        historyManager.add(task(2));
+        assertEquals(List.of(task(3), task(4), task(2)), historyManager.getHistoryAfter(page.getCursor(), 10).getTasks(),
+                "Повторный просмотр задачи-курсора не должен обрывать страницы.");
+
+        page = historyManager.getHistoryAfter(page.getCursor(), 1);
+        historyManager.remove(3);
+        historyManager.add(task(5));
+        historyManager.add(task(6));
+        assertEquals(List.of(task(4), task(2), task(5), task(6)), historyManager.getHistoryAfter(page.getCursor(), 10).getTasks(),
+                "Удаление и вытеснение задачи-курсора не должны обрывать страницы.");
+    }
+
+    @Test
+    void shouldRemoveLastViewedTask() {
+        HistoryManager historyManager = new InMemoryHistoryManager();
+        historyManager.add(task(1));
+        historyManager.add(task(2));
+        historyManager.add(task(3));
+
+        historyManager.remove(3);
+        historyManager.add(task(4));
+
+        assertEquals(List.of(task(1), task(2), task(4)), historyManager.getHistory(),
+                "Удаление последней задачи не должно терять начало истории.");
+    }
+
+    @Test
+    void shouldMatchAccessOrderOnRandomViews() {
+        Random random = new Random(3);
+        HistoryManager historyManager = new InMemoryHistoryManager(50);
+        Map<Integer, Task> expected = new LinkedHashMap<>(16, 0.75f, true);
+
+        for (int step = 0; step < 20_000; step++) {
+            int id = 1 + random.nextInt(80);
+            if (random.nextInt(4) == 0) {
+                historyManager.remove(id);
+                expected.remove(id);
+            } else {
+                historyManager.add(task(id));
+                expected.put(id, task(id));
+                if (expected.size() > 50) {
+                    expected.remove(expected.keySet().iterator().next());
+                }
+            }
+        }
+
+        List<Task> history = historyManager.getHistory();
+        assertEquals(new ArrayList<>(expected.values()), history, "Порядок истории должен совпадать с порядком просмотров.");
+        HistoryPage page = historyManager.getHistoryAfter(0, 11);
+        assertEquals(history.subList(0, 11), page.getTasks(), "Первая страница должна начинаться с начала истории.");
+        assertEquals(history.subList(11, 21), historyManager.getHistoryAfter(page.getCursor(), 10).getTasks(),
+                "Страница истории должна начинаться после курсора.");
+    }
+
+    @Test
+    void shouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryHistoryManager(0));
+    }
+
+    private static Task task(int id) {
+        return new Task(id, "Task " + id, "Description " + id, Status.NEW, null, Duration.ZERO);
+    }
+}
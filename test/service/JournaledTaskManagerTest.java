@@ -0,0 +1,273 @@
+package service;
+
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import model.enums.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.file.FileBackedTaskManager;
+import service.file.JournalMetrics;
+import service.file.SyncPolicy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournaledTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+
+    private File snapshotFile;
+    private File journalFile;
+    private File sealedFile;
+    private File historyFile;
+
+    @Override
+    protected FileBackedTaskManager createTaskManager() {
+        return FileBackedTaskManager.loadFromFile(snapshotFile, true);
+    }
+
+    @BeforeEach
+    void setUp() {
+        snapshotFile = new File("journaled.csv");
+        journalFile = new File("journaled.csv.journal");
+        sealedFile = new File("journaled.csv.journal.sealed");
+        historyFile = new File("journaled.csv.history");
+        snapshotFile.delete();
+        journalFile.delete();
+        sealedFile.delete();
+        historyFile.delete();
+        super.setUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskManager.close();
+    }
+
+    @Test
+    void shouldReplayJournalOnTopOfSnapshot() {
+        Epic epic = new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(epic);
+        SubTask subtask = new SubTask(0, "Subtask 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 3, 1, 9, 0), Duration.ofMinutes(30), epic.getId());
+        taskManager.addSubtask(subtask);
+        Task task = new Task(0, "Task 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 3, 1, 10, 0), Duration.ofMinutes(30));
+        taskManager.addTask(task);
+        taskManager.compact();
+
+        assertEquals(0, journalFile.length(), "Журнал должен очищаться после снимка.");
+
+        taskManager.updateSubtask(new SubTask(subtask.getId(), "Subtask 1", "Description 1", Status.DONE,
+                LocalDateTime.of(2024, 3, 1, 9, 0), Duration.ofMinutes(30), epic.getId()));
+        taskManager.removeTask(task.getId());
+        Task next = new Task(0, "Task 2", "Description 2", Status.NEW,
+                LocalDateTime.of(2024, 3, 1, 11, 0), Duration.ofMinutes(30));
+        taskManager.addTask(next);
+        long snapshotSize = snapshotFile.length();
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(snapshotFile, true);
+
+        assertEquals(snapshotSize, snapshotFile.length(), "Изменения не должны переписывать снимок.");
+        assertTrue(journalFile.length() > 0, "Изменения должны попадать в журнал.");
+        assertEquals(Status.DONE, loadedManager.getEpic(epic.getId()).getStatus(), "Статус эпика должен восстанавливаться из журнала.");
+        assertNull(loadedManager.getTask(task.getId()), "Удаление должно восстанавливаться из журнала.");
+        assertEquals(List.of(next), loadedManager.getAllTasks(), "Новая задача должна восстанавливаться из журнала.");
+
+        Epic epicAfterRestart = new Epic(0, "Epic 2", "Description 2", Status.NEW, Duration.ZERO);
+        loadedManager.addEpic(epicAfterRestart);
+        assertTrue(epicAfterRestart.getId() > next.getId(), "Идентификаторы после воспроизведения не должны повторяться.");
+    }
+
+    @Test
+    void shouldReplayDeleteAll() {
+        taskManager.addTask(new Task(0, "Task 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 4, 1, 10, 0), Duration.ofMinutes(30)));
+        taskManager.deleteAllTasks();
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(snapshotFile, true);
+
+        assertTrue(loadedManager.getAllTasks().isEmpty(), "Очистка должна восстанавливаться из журнала.");
+    }
+
+    @Test
+    void shouldKeepHistoryAfterCompaction() {
+        List<Task> added = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Task task = new Task(0, "Task " + i, "Description " + i, Status.NEW, Duration.ZERO);
+            taskManager.addTask(task);
+            added.add(task);
+        }
+        for (int i = 0; i < 3; i++) {
+            taskManager.getTask(added.get(i).getId());
+        }
+        taskManager.close();
+
+        FileBackedTaskManager reloaded = FileBackedTaskManager.loadFromFile(snapshotFile, true);
+        reloaded.getTask(added.get(3).getId());
+        reloaded.compact();
+        reloaded.close();
+        taskManager = FileBackedTaskManager.loadFromFile(snapshotFile, true);
+
+        assertTrue(historyFile.exists(), "Сжатие не должно удалять журнал истории.");
+        assertEquals(added, taskManager.getHistory(), "История должна переживать сжатие журнала.");
+    }
+
+    @Test
+    void shouldCompactInBackgroundOnceJournalExceedsSize() throws InterruptedException {
+        taskManager.startCompaction(512, Duration.ofHours(1));
+        for (int i = 0; i < 20; i++) {
+            taskManager.addTask(new Task(0, "Task " + i, "Description " + i, Status.NEW,
+                    LocalDateTime.of(2024, 5, 1, 0, 0).plusHours(i), Duration.ofMinutes(30)));
+        }
+
+        JournalMetrics metrics = awaitSnapshot();
+
+        assertTrue(metrics.getLastSnapshotMillis() >= 0, "Длительность снимка должна быть известна.");
+        assertEquals(0, metrics.getFailureCount(), "Сжатие не должно завершаться ошибкой.");
+        assertFalse(sealedFile.exists(), "Запечатанный сегмент должен удаляться после замены снимка.");
+        assertTrue(snapshotFile.length() > 0, "Снимок должен быть записан.");
+        taskManager.close();
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(snapshotFile, true);
+        assertEquals(taskManager.getAllTasks(), loadedManager.getAllTasks(), "Состояние после сжатия должно совпадать.");
+    }
+
+    @Test
+    void shouldCompactInBackgroundOnceJournalExceedsAge() throws InterruptedException {
+        taskManager.startCompaction(Long.MAX_VALUE, Duration.ofMillis(50));
+        taskManager.addEpic(new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO));
+
+        awaitSnapshot();
+
+        assertEquals(0, taskManager.getMetrics().getJournalSize(), "Журнал должен быть пуст после сжатия.");
+        taskManager.close();
+        assertEquals(1, FileBackedTaskManager.loadFromFile(snapshotFile, true).getAllEpics().size(),
+                "Эпик должен попасть в снимок.");
+    }
+
+    @Test
+    void shouldRecoverFromInterruptedCompaction() throws IOException {
+        Task task = new Task(0, "Task 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 6, 1, 10, 0), Duration.ofMinutes(30));
+        taskManager.addTask(task);
+        taskManager.close();
+        Files.move(journalFile.toPath(), sealedFile.toPath());
+
+        FileBackedTaskManager restarted = FileBackedTaskManager.loadFromFile(snapshotFile, true);
+        assertEquals(task, restarted.getTask(task.getId()), "Запечатанный сегмент должен воспроизводиться при загрузке.");
+        restarted.updateTask(new Task(task.getId(), "Task 1", "Description 1", Status.DONE,
+                LocalDateTime.of(2024, 6, 1, 10, 0), Duration.ofMinutes(30)));
+        byte[] sealedRecords = Files.readAllBytes(sealedFile.toPath());
+        byte[] journalRecords = Files.readAllBytes(journalFile.toPath());
+        restarted.compact();
+        restarted.close();
+
+        assertFalse(sealedFile.exists(), "Сегменты должны удаляться после сжатия.");
+        Files.write(sealedFile.toPath(), sealedRecords);
+        Files.write(sealedFile.toPath(), journalRecords, StandardOpenOption.APPEND);
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(snapshotFile, true);
+
+        assertEquals(Status.DONE, loadedManager.getTask(task.getId()).getStatus(),
+                "Повторное воспроизведение сегмента не должно менять состояние.");
+        assertEquals(1, loadedManager.getAllTasks().size(), "Задача не должна дублироваться.");
+    }
+
+    @Test
+    void shouldGroupConcurrentWritesUnderEveryOpPolicy() throws InterruptedException {
+        taskManager.setSyncPolicy(SyncPolicy.EVERY_OP, Duration.ZERO, 1024 * 1024);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t * 50;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    taskManager.addTask(new Task(0, "Task", "Description", Status.NEW,
+                            LocalDateTime.of(2024, 7, 1, 0, 0).plusHours(offset + i), Duration.ofMinutes(30)));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        JournalMetrics metrics = taskManager.getMetrics();
+        assertTrue(metrics.getSyncCount() > 0, "Журнал должен синхронизироваться с диском.");
+        assertTrue(metrics.getSyncCount() <= 400, "Синхронизаций не должно быть больше, чем операций.");
+        assertEquals(400, FileBackedTaskManager.loadFromFile(snapshotFile, true).getAllTasks().size(),
+                "Все параллельные изменения должны попасть в журнал.");
+    }
+
+    @Test
+    void shouldBufferWritesUntilIntervalOrBackpressure() {
+        taskManager.setSyncPolicy(SyncPolicy.INTERVAL, Duration.ofHours(1), 256);
+        taskManager.addEpic(new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO));
+
+        assertEquals(0, journalFile.length(), "Запись должна откладываться до интервала синхронизации.");
+
+        for (int i = 0; i < 10; i++) {
+            taskManager.addEpic(new Epic(0, "Epic " + i, "Description " + i, Status.NEW, Duration.ZERO));
+        }
+
+        assertTrue(journalFile.length() > 0, "Переполнение буфера должно сбрасывать записи на диск.");
+        taskManager.close();
+        assertEquals(11, FileBackedTaskManager.loadFromFile(snapshotFile, true).getAllEpics().size(),
+                "Закрытие должно дописывать оставшиеся записи.");
+    }
+
+    @Test
+    void shouldCountJournalSizeInBytes() {
+        taskManager.addEpic(new Epic(0, "Эпик с кириллицей", "Описание на русском", Status.NEW, Duration.ZERO));
+        taskManager.addTask(new Task(0, "Задача", "Ещё одно описание", Status.NEW, Duration.ZERO));
+
+        assertEquals(journalFile.length(), taskManager.getMetrics().getJournalSize(),
+                "Размер журнала должен считаться в байтах UTF-8.");
+        taskManager.close();
+        taskManager = FileBackedTaskManager.loadFromFile(snapshotFile, true);
+        assertEquals(journalFile.length(), taskManager.getMetrics().getJournalSize(),
+                "Размер журнала не должен меняться после перезапуска.");
+    }
+
+    @Test
+    void shouldSyncOnInterval() throws InterruptedException {
+        taskManager.setSyncPolicy(SyncPolicy.INTERVAL, Duration.ofMillis(20), 1024 * 1024);
+        taskManager.addEpic(new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (taskManager.getMetrics().getSyncCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(journalFile.length() > 0, "Фоновая синхронизация должна записать журнал.");
+    }
+
+    private JournalMetrics awaitSnapshot() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        JournalMetrics metrics = taskManager.getMetrics();
+        while (metrics.getSnapshotCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            metrics = taskManager.getMetrics();
+        }
+        assertTrue(metrics.getSnapshotCount() > 0, "Фоновое сжатие должно выполниться.");
+        return metrics;
+    }
+
+    @Test
+    void shouldReplayQuotedRecordsLongerThanReadBuffer() {
+        String description = "Строка, \"с кавычками\"\n".repeat(10_000);
+        Task task = new Task(0, "Task, 1", description, Status.NEW, Duration.ZERO);
+        taskManager.addTask(task);
+        taskManager.addTask(new Task(0, "Task\n2", "Description 2", Status.NEW, Duration.ZERO));
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(snapshotFile, true);
+
+        assertEquals(taskManager.getAllTasks(), loadedManager.getAllTasks(), "Записи журнала должны восстанавливаться.");
+        assertEquals(description, loadedManager.getTask(task.getId()).getDescription(),
+                "Длинное описание должно восстанавливаться целиком.");
+    }
+}
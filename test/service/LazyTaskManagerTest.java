@@ -0,0 +1,158 @@
+package service;
+
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import model.enums.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.file.FileBackedTaskManager;
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+
+    private static final int CACHE_SIZE = 4;
+
+    private File pageFile;
+
+    @Override
+    protected FileBackedTaskManager createTaskManager() {
+        return FileBackedTaskManager.loadLazy(pageFile, CACHE_SIZE);
+    }
+
+    @BeforeEach
+    void setUp() {
+        pageFile = new File("lazy.db");
+        pageFile.delete();
+        super.setUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskManager.close();
+    }
+
+    @Test
+    void shouldLoadTextOnFirstAccess() {
+        Epic epic = fillBoard();
+        FileBackedTaskManager loadedManager = reopen();
+
+        assertEquals(texts(taskManager.getAllTasks()), texts(loadedManager.getAllTasks()),
+                "Названия и описания задач должны подгружаться.");
+        assertEquals(texts(taskManager.getAllSubtasks()), texts(loadedManager.getAllSubtasks()),
+                "Названия и описания подзадач должны подгружаться.");
+        Epic loadedEpic = loadedManager.getEpic(epic.getId());
+        assertEquals("Epic 1", loadedEpic.getName(), "Название эпика должно подгружаться.");
+        assertEquals(epic.getSubTasks(), loadedEpic.getSubTasks(), "Подзадачи эпика должны сохраняться.");
+        assertEquals(taskManager.getEpic(epic.getId()).getEndTime(), loadedEpic.getEndTime(),
+                "Время окончания эпика должно сохраняться.");
+        assertEquals(texts(taskManager.getSubtasksOfEpic(epic.getId())), texts(loadedManager.getSubtasksOfEpic(epic.getId())),
+                "Подзадачи эпика должны возвращаться с текстом.");
+        assertEquals(texts(taskManager.getPriorityTasks()), texts(loadedManager.getPriorityTasks()),
+                "Приоритетный список должен возвращаться с текстом.");
+        assertEquals(List.of("Epic 1/Description 1"), texts(loadedManager.getHistory()),
+                "История должна возвращаться с текстом.");
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldKeepTextOfEpicRewrittenBySubtaskChange() {
+        Epic epic = fillBoard();
+        taskManager.close();
+        taskManager = reopen();
+        SubTask subtask = taskManager.getSubtasksOfEpic(epic.getId()).get(0);
+
+        taskManager.updateSubtask(new SubTask(subtask.getId(), subtask.getName(), "Updated", Status.DONE,
+                subtask.getStartTime(), subtask.getDuration(), epic.getId()));
+        taskManager.removeSubtask(taskManager.getSubtasksOfEpic(epic.getId()).get(1).getId());
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadPaged(pageFile);
+        Epic loadedEpic = loadedManager.getEpic(epic.getId());
+        assertEquals("Epic 1", loadedEpic.getName(), "Текст эпика не должен теряться при пересчёте.");
+        assertEquals("Description 1", loadedEpic.getDescription(), "Описание эпика не должно теряться.");
+        assertEquals(taskManager.getEpic(epic.getId()).getStatus(), loadedEpic.getStatus(), "Статус эпика должен сохраняться.");
+        assertEquals(taskManager.getEpic(epic.getId()).getEndTime(), loadedEpic.getEndTime(),
+                "Время окончания эпика должно сохраняться.");
+        assertEquals("Updated", loadedManager.getSubtask(subtask.getId()).getDescription(),
+                "Обновление подзадачи должно сохраняться.");
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldNotChangeStoredTasksOnRead() {
+        Task task = new Task(0, "Task 1", "Description 1", Status.NEW, null, Duration.ZERO);
+        taskManager.addTask(task);
+        taskManager.close();
+        taskManager = reopen();
+
+        Task loaded = taskManager.getTask(task.getId());
+        loaded.setName("Изменено");
+
+        assertEquals("Task 1", taskManager.getTask(task.getId()).getName(),
+                "Изменение прочитанной копии не должно влиять на менеджер.");
+    }
+
+    @Test
+    void shouldMatchStateAfterRandomChanges() {
+        Random random = new Random(11);
+        List<Integer> taskIds = new ArrayList<>();
+        for (int step = 0; step < 2_000; step++) {
+            int operation = random.nextInt(5);
+            String description = "d".repeat(random.nextInt(10) == 0 ? 2_000 + random.nextInt(6_000) : random.nextInt(300));
+            if (operation < 2 || taskIds.isEmpty()) {
+                Task task = new Task(0, "Task " + step, description, Status.NEW, null, Duration.ZERO);
+                taskManager.addTask(task);
+                taskIds.add(task.getId());
+            } else if (operation == 2) {
+                int taskId = taskIds.get(random.nextInt(taskIds.size()));
+                taskManager.updateTask(new Task(taskId, "Updated " + step, description, Status.DONE, null, Duration.ZERO));
+            } else if (operation == 3) {
+                taskManager.removeTask(taskIds.remove(random.nextInt(taskIds.size())));
+            } else {
+                taskManager.getTask(taskIds.get(random.nextInt(taskIds.size())));
+            }
+            if (step % 400 == 399) {
+                taskManager.close();
+                FileBackedTaskManager expectedManager = FileBackedTaskManager.loadPaged(pageFile);
+                taskManager = reopen();
+                assertEquals(texts(expectedManager.getAllTasks()), texts(taskManager.getAllTasks()),
+                        "Текст должен совпадать с полной загрузкой на шаге " + step);
+                expectedManager.close();
+            }
+        }
+    }
+
+    private Epic fillBoard() {
+        Epic epic = new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(epic);
+        for (int i = 0; i < 3; i++) {
+            taskManager.addSubtask(new SubTask(0, "Subtask " + i, "Description " + i, Status.NEW,
+                    LocalDateTime.of(2024, 3, 1, 9 + i, 0), Duration.ofMinutes(30), epic.getId()));
+        }
+        for (int i = 0; i < 10; i++) {
+            taskManager.addTask(new Task(0, "Task " + i, "Description " + i, Status.NEW,
+                    LocalDateTime.of(2024, 3, 2, 9 + i, 0), Duration.ofMinutes(30)));
+        }
+        taskManager.getEpic(epic.getId());
+        return epic;
+    }
+
+    private FileBackedTaskManager reopen() {
+        return FileBackedTaskManager.loadLazy(pageFile, CACHE_SIZE);
+    }
+
+    private static List<String> texts(List<? extends Task> tasks) {
+        List<String> texts = new ArrayList<>();
+        for (Task task : tasks) {
+            texts.add(task.getName() + "/" + task.getDescription());
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,303 @@
+package service;
+
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import model.enums.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.file.FileBackedTaskManager;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PagedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+
+    private static final int PAGE_SIZE = 4096;
+
+    private File pageFile;
+
+    @Override
+    protected FileBackedTaskManager createTaskManager() {
+        return FileBackedTaskManager.loadPaged(pageFile);
+    }
+
+    @BeforeEach
+    void setUp() {
+        pageFile = new File("paged.db");
+        pageFile.delete();
+        super.setUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskManager.close();
+    }
+
+    @Test
+    void shouldRestoreStateAfterReopen() {
+        Epic epic = new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(epic);
+        SubTask first = new SubTask(0, "Subtask 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 3, 1, 9, 0), Duration.ofMinutes(30), epic.getId());
+        SubTask second = new SubTask(0, "Subtask 2", "Description 2", Status.NEW,
+                LocalDateTime.of(2024, 3, 1, 10, 0), Duration.ofMinutes(30), epic.getId());
+        taskManager.addSubtask(first);
+        taskManager.addSubtask(second);
+        Task task = new Task(0, "Task 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 3, 1, 11, 0), Duration.ofMinutes(30));
+        taskManager.addTask(task);
+        taskManager.updateSubtask(new SubTask(first.getId(), "Subtask 1", "Updated", Status.DONE,
+                LocalDateTime.of(2024, 3, 1, 9, 0), Duration.ofMinutes(30), epic.getId()));
+        taskManager.removeSubtask(second.getId());
+
+        FileBackedTaskManager loadedManager = reopen();
+
+        assertEquals(taskManager.getAllTasks(), loadedManager.getAllTasks(), "Задачи должны восстанавливаться.");
+        assertEquals(taskManager.getAllSubtasks(), loadedManager.getAllSubtasks(), "Подзадачи должны восстанавливаться.");
+        assertEquals("Updated", loadedManager.getSubtask(first.getId()).getDescription(), "Обновление должно сохраняться.");
+        Epic loadedEpic = loadedManager.getEpic(epic.getId());
+        assertEquals(Status.DONE, loadedEpic.getStatus(), "Статус эпика должен сохраняться.");
+        assertEquals(taskManager.getEpic(epic.getId()).getEndTime(), loadedEpic.getEndTime(),
+                "Время окончания эпика должно сохраняться.");
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldWriteOnlyTouchedPages() {
+        taskManager.addAll(tasks(5_000, "Description"));
+        long fileSize = pageFile.length();
+        long writes = taskManager.getMetrics().getWriteCount();
+        Task task = taskManager.getAllTasks().get(2_500);
+
+        taskManager.updateTask(new Task(task.getId(), task.getName(), "Короткое", Status.DONE,
+                task.getStartTime(), task.getDuration()));
+        assertEquals(1, taskManager.getMetrics().getWriteCount() - writes, "Обновление на месте пишет одну страницу.");
+
+        writes = taskManager.getMetrics().getWriteCount();
+        taskManager.updateTask(new Task(task.getId(), task.getName(), "Описание, которое длиннее исходного".repeat(3),
+                Status.DONE, task.getStartTime(), task.getDuration()));
+        assertTrue(taskManager.getMetrics().getWriteCount() - writes <= 2, "Перенос записи пишет не более двух страниц.");
+        assertTrue(pageFile.length() <= fileSize + 4096, "Файл не должен переписываться целиком.");
+
+        FileBackedTaskManager loadedManager = reopen();
+        assertEquals(taskManager.getTask(task.getId()).getDescription(), loadedManager.getTask(task.getId()).getDescription(),
+                "Перенесённая запись должна читаться.");
+        assertEquals(5_000, loadedManager.getAllTasks().size(), "Остальные записи не должны теряться.");
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldReuseSpaceAfterRemove() {
+        taskManager.addAll(tasks(2_000, "Description"));
+        long fileSize = pageFile.length();
+        for (Task task : taskManager.getAllTasks().subList(0, 1_000)) {
+            taskManager.removeTask(task.getId());
+        }
+        List<Task> replacements = tasks(1_000, "Replacement");
+        for (Task task : replacements) {
+            taskManager.addTask(task);
+        }
+
+        assertEquals(fileSize, pageFile.length(), "Освобождённое место должно переиспользоваться.");
+        FileBackedTaskManager loadedManager = reopen();
+        assertEquals(taskManager.getAllTasks(), loadedManager.getAllTasks(), "Состояние после удалений должно совпадать.");
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldStoreRecordsLargerThanPage() {
+        String description = "Длинное описание, ".repeat(10_000);
+        Task task = new Task(0, "Task 1", description, Status.NEW, null, Duration.ZERO);
+        taskManager.addTask(task);
+        taskManager.addTask(new Task(0, "Task 2", "Description 2", Status.NEW, null, Duration.ZERO));
+
+        FileBackedTaskManager loadedManager = reopen();
+        assertEquals(description, loadedManager.getTask(task.getId()).getDescription(), "Длинная запись должна читаться.");
+        loadedManager.close();
+
+        taskManager.updateTask(new Task(task.getId(), "Task 1", description.substring(1), Status.NEW, null, Duration.ZERO));
+        long fileSize = pageFile.length();
+        taskManager.updateTask(new Task(task.getId(), "Task 1", description.substring(2), Status.NEW, null, Duration.ZERO));
+        assertEquals(fileSize, pageFile.length(), "Страницы старой цепочки должны переиспользоваться.");
+        taskManager.removeTask(task.getId());
+
+        loadedManager = reopen();
+        assertNull(loadedManager.getTask(task.getId()), "Удалённая запись не должна восстанавливаться.");
+        assertEquals(1, loadedManager.getAllTasks().size(), "Оставшаяся запись должна читаться.");
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldRemoveEpicWithSubtasks() {
+        Epic epic = new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(epic);
+        taskManager.addSubtask(new SubTask(0, "Subtask 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 3, 1, 9, 0), Duration.ofMinutes(30), epic.getId()));
+        taskManager.removeEpic(epic.getId());
+        taskManager.addTask(new Task(0, "Task 1", "Description 1", Status.NEW, null, Duration.ZERO));
+        taskManager.deleteAllTasks();
+
+        FileBackedTaskManager loadedManager = reopen();
+
+        assertTrue(loadedManager.getAllEpics().isEmpty(), "Эпик должен удаляться.");
+        assertTrue(loadedManager.getAllSubtasks().isEmpty(), "Подзадачи эпика должны удаляться.");
+        assertTrue(loadedManager.getAllTasks().isEmpty(), "Очистка должна сохраняться.");
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldMigrateSnapshotToPages() {
+        taskManager.close();
+        pageFile.delete();
+        FileBackedTaskManager snapshotManager = new FileBackedTaskManager(pageFile);
+        snapshotManager.addAll(tasks(100, "Description"));
+
+        taskManager = FileBackedTaskManager.loadPaged(pageFile);
+        taskManager.addTask(new Task(0, "Task 101", "Description", Status.NEW, null, Duration.ZERO));
+
+        FileBackedTaskManager loadedManager = FileBackedTaskManager.loadFromFile(pageFile);
+        assertEquals(101, loadedManager.getAllTasks().size(), "Снимок должен переноситься в страничный файл.");
+        assertEquals(taskManager.getAllTasks(), loadedManager.getAllTasks(), "Страничный файл должен читаться как снимок.");
+    }
+
+    @Test
+    void shouldMatchStateAfterRandomChanges() {
+        Random random = new Random(7);
+        List<Integer> taskIds = new ArrayList<>();
+        for (int step = 0; step < 3_000; step++) {
+            int operation = random.nextInt(4);
+            String description = "d".repeat(random.nextInt(10) == 0 ? 2_000 + random.nextInt(6_000) : random.nextInt(300));
+            if (operation < 2 || taskIds.isEmpty()) {
+                Task task = new Task(0, "Task " + step, description, Status.NEW, null, Duration.ZERO);
+                taskManager.addTask(task);
+                taskIds.add(task.getId());
+            } else if (operation == 2) {
+                int taskId = taskIds.get(random.nextInt(taskIds.size()));
+                taskManager.updateTask(new Task(taskId, "Updated " + step, description, Status.DONE, null, Duration.ZERO));
+            } else {
+                taskManager.removeTask(taskIds.remove(random.nextInt(taskIds.size())));
+            }
+            if (step % 500 == 499) {
+                FileBackedTaskManager loadedManager = reopen();
+                for (Task task : taskManager.getAllTasks()) {
+                    Task loadedTask = loadedManager.getTask(task.getId());
+                    assertNotNull(loadedTask, "Задача " + task.getId() + " должна читаться на шаге " + step);
+                    assertEquals(task.getName(), loadedTask.getName(), "Название должно совпадать на шаге " + step);
+                    assertEquals(task.getDescription(), loadedTask.getDescription(), "Описание должно совпадать.");
+                }
+                assertEquals(taskManager.getAllTasks().size(), loadedManager.getAllTasks().size(),
+                        "Удалённые задачи не должны восстанавливаться.");
+                loadedManager.close();
+            }
+        }
+    }
+
+    @Test
+    void shouldRestoreHistoryAfterReopen() {
+        taskManager.addAll(tasks(10, "Description"));
+        List<Task> all = taskManager.getAllTasks();
+        taskManager.getTask(all.get(3).getId());
+        taskManager.getTask(all.get(7).getId());
+        taskManager.getTask(all.get(3).getId());
+        taskManager.close();
+
+        taskManager = reopen();
+
+        assertEquals(List.of(all.get(7), all.get(3)), taskManager.getHistory(), "История должна восстанавливаться.");
+    }
+
+    @Test
+    void shouldPreferNewerCopyAfterCrashBetweenPhases() throws IOException {
+        taskManager.addAll(tasks(500, "Description"));
+        Task task = taskManager.getAllTasks().get(10);
+        taskManager.close();
+        byte[] before = Files.readAllBytes(pageFile.toPath());
+
+        FileBackedTaskManager manager = reopen();
+        String moved = "moved record ".repeat(60);
+        manager.updateTask(new Task(task.getId(), task.getName(), moved, Status.DONE,
+                task.getStartTime(), task.getDuration()));
+        manager.close();
+        byte[] after = Files.readAllBytes(pageFile.toPath());
+        byte[] marker = moved.getBytes(StandardCharsets.UTF_8);
+        byte[] crashed = after.clone();
+        boolean vacated = false;
+        for (int page = 0; page < before.length / PAGE_SIZE; page++) {
+            if (!containsAt(after, page, marker)) {
+                vacated |= !Arrays.equals(before, page * PAGE_SIZE, (page + 1) * PAGE_SIZE,
+                        after, page * PAGE_SIZE, (page + 1) * PAGE_SIZE);
+                System.arraycopy(before, page * PAGE_SIZE, crashed, page * PAGE_SIZE, PAGE_SIZE);
+            }
+        }
+        assertTrue(vacated, "Запись должна переехать на другую страницу.");
+        Files.write(pageFile.toPath(), crashed);
+
+        FileBackedTaskManager loadedManager = reopen();
+        assertEquals(moved, loadedManager.getTask(task.getId()).getDescription(), "Должна побеждать более новая копия.");
+        assertEquals(500, loadedManager.getAllTasks().size(), "Дубликаты не должны попадать в результат.");
+        loadedManager.updateTask(new Task(task.getId(), task.getName(), "Short", Status.DONE,
+                task.getStartTime(), task.getDuration()));
+        loadedManager.close();
+
+        loadedManager = reopen();
+        assertEquals("Short", loadedManager.getTask(task.getId()).getDescription(), "Устаревшая копия не должна возвращаться.");
+        assertEquals(500, loadedManager.getAllTasks().size());
+        loadedManager.close();
+    }
+
+    @Test
+    void shouldReclaimOrphanedOverflowPages() throws IOException {
+        taskManager.addTask(new Task(0, "Task 1", "Description 1", Status.NEW, null, Duration.ZERO));
+        taskManager.close();
+        byte[] before = Files.readAllBytes(pageFile.toPath());
+
+        FileBackedTaskManager manager = reopen();
+        String description = "Длинное описание, ".repeat(2_000);
+        manager.addTask(new Task(0, "Task 2", description, Status.NEW, null, Duration.ZERO));
+        manager.close();
+        byte[] crashed = Files.readAllBytes(pageFile.toPath());
+        System.arraycopy(before, 0, crashed, 0, before.length);
+        Files.write(pageFile.toPath(), crashed);
+
+        FileBackedTaskManager loadedManager = reopen();
+        assertEquals(1, loadedManager.getAllTasks().size(), "Запись без слота не должна восстанавливаться.");
+        long fileSize = pageFile.length();
+        loadedManager.addTask(new Task(0, "Task 3", "Description 3", Status.NEW, null, Duration.ZERO));
+        loadedManager.addTask(new Task(0, "Task 4", description, Status.NEW, null, Duration.ZERO));
+        assertEquals(fileSize, pageFile.length(), "Осиротевшие страницы цепочки должны переиспользоваться.");
+        loadedManager.close();
+    }
+
+    private static boolean containsAt(byte[] bytes, int page, byte[] marker) {
+        int end = (page + 1) * PAGE_SIZE - marker.length;
+        for (int i = page * PAGE_SIZE; i <= end; i++) {
+            if (Arrays.equals(bytes, i, i + marker.length, marker, 0, marker.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private FileBackedTaskManager reopen() {
+        return FileBackedTaskManager.loadPaged(pageFile);
+    }
+
+    private static List<Task> tasks(int count, String description) {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(new Task(0, "Task " + i, description + " " + i, Status.NEW,
+                    LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(10L * i), Duration.ofMinutes(5)));
+        }
+        return batch;
+    }
+}
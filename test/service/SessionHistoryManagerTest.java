@@ -0,0 +1,58 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+import service.managers.SessionHistoryManager;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionHistoryManagerTest {
+
+    @Test
+    void shouldKeepSeparateHistoriesPerSession() {
+        SessionHistoryManager sessions = new SessionHistoryManager(3, 1024 * 1024, Duration.ofMinutes(5));
+        sessions.add("alice", 1);
+        sessions.add("bob", 2);
+        sessions.add("alice", 3);
+        sessions.add("alice", 1);
+        sessions.add("alice", 4);
+        sessions.add("alice", 5);
+
+        assertArrayEquals(new int[]{1, 4, 5}, sessions.getHistory("alice"),
+                "История сессии должна хранить последние просмотры без повторов.");
+        assertArrayEquals(new int[]{2}, sessions.getHistory("bob"), "Сессии не должны видеть чужие просмотры.");
+        assertArrayEquals(new int[0], sessions.getHistory("carol"));
+    }
+
+    @Test
+    void shouldEvictLeastRecentSessionsOverBudget() {
+        SessionHistoryManager sessions = new SessionHistoryManager(50, 16 * 1024, Duration.ofMinutes(5));
+        for (int user = 0; user < 1_000; user++) {
+            for (int id = 1; id <= 20; id++) {
+                sessions.add("user-" + user, id);
+            }
+            sessions.getHistory("user-0");
+        }
+
+        assertTrue(sessions.getUsedBytes() <= 16 * 1024, "Бюджет памяти не должен превышаться.");
+        assertTrue(sessions.getEvictedCount() > 0, "Лишние сессии должны вытесняться.");
+        assertEquals(20, sessions.getHistory("user-0").length, "Активная сессия не должна вытесняться.");
+        assertEquals(20, sessions.getHistory("user-999").length, "Последняя сессия должна сохраняться.");
+        assertEquals(0, sessions.getHistory("user-1").length, "Давно неактивная сессия должна вытесняться.");
+    }
+
+    @Test
+    void shouldExpireIdleSessions() throws InterruptedException {
+        SessionHistoryManager sessions = new SessionHistoryManager(10, 1024 * 1024, Duration.ofMillis(50));
+        sessions.add("alice", 1);
+        Thread.sleep(150);
+        sessions.add("bob", 2);
+
+        assertEquals(1, sessions.getSessionCount(), "Простаивающая сессия должна удаляться.");
+        assertArrayEquals(new int[0], sessions.getHistory("alice"));
+    }
+
+    @Test
+    void shouldRejectBudgetSmallerThanSession() {
+        assertThrows(IllegalArgumentException.class, () -> new SessionHistoryManager(1_000, 1024, Duration.ofMinutes(5)));
+    }
+}
@@ -0,0 +1,110 @@
+package service;
+
+import model.Epic;
+import model.SubTask;
+import model.Task;
+import exception.ValidationException;
+import model.enums.Status;
+import org.junit.jupiter.api.Test;
+import service.managers.InMemoryTaskManager;
+import service.managers.SnapshotTaskManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTaskManagerTest extends TaskManagerTest<SnapshotTaskManager> {
+
+    @Override
+    protected SnapshotTaskManager createTaskManager() {
+        return new SnapshotTaskManager();
+    }
+
+    @Test
+    void shouldKeepReturnedListsUnchangedAfterWrites() {
+        Task task1 = new Task(1, "Task 1", "Description 1", Status.NEW, LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(30));
+        taskManager.addTask(task1);
+        Epic epic = new Epic(2, "Epic 1", "Description 1", Status.NEW);
+        taskManager.addEpic(epic);
+
+        List<Task> tasksBefore = taskManager.getAllTasks();
+        List<Task> prioritizedBefore = taskManager.getPriorityTasks();
+
+        Task task2 = new Task(3, "Task 2", "Description 2", Status.NEW, LocalDateTime.of(2024, 1, 1, 9, 0), Duration.ofMinutes(30));
+        taskManager.addTask(task2);
+        taskManager.addSubtask(new SubTask(4, "SubTask 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 1, 1, 8, 0), Duration.ofMinutes(30), epic.getId()));
+        taskManager.removeTask(task1.getId());
+
+        assertEquals(List.of(task1), tasksBefore, "Ранее полученный список не должен меняться.");
+        assertEquals(List.of(task1), prioritizedBefore, "Ранее полученное расписание не должно меняться.");
+        assertEquals(List.of(task2), taskManager.getAllTasks());
+
+        List<Task> prioritized = taskManager.getPriorityTasks();
+        assertEquals(2, prioritized.size());
+        assertTrue(prioritized.get(0).getStartTime().isBefore(prioritized.get(1).getStartTime()),
+                "Расписание должно быть отсортировано по времени начала.");
+    }
+
+    @Test
+    void shouldKeepEpicsFromEarlierReadsUnchanged() {
+        Epic epic = new Epic(1, "Epic 1", "Description 1", Status.NEW);
+        taskManager.addEpic(epic);
+        SubTask subtask = new SubTask(2, "SubTask 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2024, 1, 1, 8, 0), Duration.ofMinutes(30), epic.getId());
+        taskManager.addSubtask(subtask);
+        Epic before = taskManager.getEpic(epic.getId());
+
+        taskManager.updateSubtask(new SubTask(subtask.getId(), "SubTask 1", "Description 1", Status.DONE,
+                LocalDateTime.of(2024, 1, 1, 9, 0), Duration.ofMinutes(30), epic.getId()));
+        taskManager.updateEpic(new Epic(epic.getId(), "Epic 2", "Description 2", Status.NEW));
+        taskManager.addSubtask(new SubTask(3, "SubTask 2", "Description 2", Status.IN_PROGRESS,
+                LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(30), epic.getId()));
+        Epic updated = taskManager.getEpic(epic.getId());
+        taskManager.deleteAllSubtasks();
+
+        assertEquals("Epic 1", before.getName(), "Опубликованный эпик не должен переименовываться.");
+        assertEquals(Status.NEW, before.getStatus(), "Опубликованный эпик не должен менять статус.");
+        assertEquals(LocalDateTime.of(2024, 1, 1, 8, 0), before.getStartTime(), "Опубликованный эпик не должен менять время.");
+        assertEquals(List.of(subtask.getId()), before.getSubTasks(), "Опубликованный эпик не должен менять подзадачи.");
+        assertEquals("Epic 2", updated.getName());
+        assertEquals(Status.IN_PROGRESS, updated.getStatus(), "Статус эпика должен учитывать все подзадачи.");
+        assertEquals(2, updated.getSubTasks().size(), "Очистка подзадач не должна менять прочитанный эпик.");
+        assertTrue(taskManager.getEpic(epic.getId()).getSubTasks().isEmpty());
+        assertEquals(Status.NEW, taskManager.getEpic(epic.getId()).getStatus());
+    }
+
+    @Test
+    void shouldRejectModificationOfReturnedLists() {
+        taskManager.addTask(new Task(1, "Task 1", "Description 1", Status.NEW, LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(30)));
+
+        assertThrows(UnsupportedOperationException.class, () -> taskManager.getAllTasks().clear());
+    }
+
+    @Test
+    void shouldFindSameSlotsAsIntervalIndex() {
+        InMemoryTaskManager reference = new InMemoryTaskManager();
+        Random random = new Random(7);
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 8, 0);
+        for (int i = 0; i < 400; i++) {
+            LocalDateTime start = random.nextInt(10) == 0 ? null : base.plusMinutes(15L * random.nextInt(300));
+            Duration duration = Duration.ofMinutes(15L * random.nextInt(5));
+            try {
+                reference.addTask(new Task(0, "Task", "Description", Status.NEW, start, duration));
+            } catch (ValidationException e) {
+                continue;
+            }
+            taskManager.addTask(new Task(0, "Task", "Description", Status.NEW, start, duration));
+        }
+
+        for (int minutes = -30; minutes < 15 * 310; minutes += 5) {
+            LocalDateTime from = base.plusMinutes(minutes);
+            for (int length : new int[]{10, 30, 60}) {
+                assertEquals(reference.findFreeSlots(from, Duration.ofMinutes(length), 4),
+                        taskManager.findFreeSlots(from, Duration.ofMinutes(length), 4),
+                        "Окна из снимка должны совпадать с окнами индекса интервалов: " + from);
+            }
+        }
+    }
+}
@@ -4,11 +4,15 @@ import exception.ValidationException;
 import model.Epic;
 import model.SubTask;
 import model.Task;
+import model.TimeSlot;
 import model.enums.Status;
+import model.enums.TaskType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import service.managers.HistoryPage;
 import service.managers.TaskManager;
+import service.managers.TaskQuery;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -125,6 +129,258 @@ public abstract class TaskManagerTest<T extends TaskManager> {
                 "Пересекающиеся задачи не должны быть добавлены.");
     }
 
+    @Test
+    void shouldFreeOldSlotAfterUpdateAndRemove() {
+        Task task = new Task(1, "Task 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2018, 6, 7, 8, 0), Duration.ofMinutes(30));
+        taskManager.addTask(task);
+
+        Task movedTask = new Task(task.getId(), "Task 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2018, 6, 7, 10, 0), Duration.ofMinutes(30));
+        taskManager.updateTask(movedTask);
+
+        Task taskInOldSlot = new Task(2, "Task 2", "Description 2", Status.NEW,
+                LocalDateTime.of(2018, 6, 7, 8, 10), Duration.ofMinutes(10));
+        assertDoesNotThrow(() -> taskManager.addTask(taskInOldSlot), "Старый интервал должен освобождаться после обновления.");
+
+        Task taskInNewSlot = new Task(3, "Task 3", "Description 3", Status.NEW,
+                LocalDateTime.of(2018, 6, 7, 10, 10), Duration.ofMinutes(10));
+        assertThrows(ValidationException.class, () -> taskManager.addTask(taskInNewSlot),
+                "Новый интервал задачи должен учитываться при проверке пересечений.");
+
+        taskManager.removeTask(movedTask.getId());
+        assertDoesNotThrow(() -> taskManager.addTask(taskInNewSlot), "Интервал удалённой задачи должен освобождаться.");
+    }
+
+    @Test
+    void shouldFindTasksByStatusAndTime() {
+        Task newTask = new Task(1, "Task 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2020, 1, 1, 10, 0), Duration.ofMinutes(10));
+        Task activeTask = new Task(2, "Task 2", "Description 2", Status.IN_PROGRESS,
+                LocalDateTime.of(2020, 1, 1, 11, 0), Duration.ofMinutes(10));
+        Task lateTask = new Task(3, "Task 3", "Description 3", Status.IN_PROGRESS,
+                LocalDateTime.of(2020, 1, 2, 11, 0), Duration.ofMinutes(10));
+        taskManager.addTask(newTask);
+        taskManager.addTask(activeTask);
+        taskManager.addTask(lateTask);
+
+        List<Task> active = taskManager.findTasks(new TaskQuery(TaskType.TASK, Status.IN_PROGRESS, null, null, null));
+        assertEquals(List.of(activeTask, lateTask), active, "Должны находиться задачи с нужным статусом.");
+
+        List<Task> window = taskManager.findTasks(new TaskQuery(TaskType.TASK, Status.IN_PROGRESS, null,
+                LocalDateTime.of(2020, 1, 1, 0, 0), LocalDateTime.of(2020, 1, 2, 0, 0)));
+        assertEquals(List.of(activeTask), window, "Должны учитываться границы интервала.");
+
+        Task doneTask = new Task(activeTask.getId(), "Task 2", "Description 2", Status.DONE,
+                LocalDateTime.of(2020, 1, 1, 11, 0), Duration.ofMinutes(10));
+        taskManager.updateTask(doneTask);
+        assertEquals(List.of(lateTask),
+                taskManager.findTasks(new TaskQuery(TaskType.TASK, Status.IN_PROGRESS, null, null, null)),
+                "Индекс статусов должен обновляться.");
+    }
+
+    @Test
+    void shouldFindSubtasksAndEpicsByStatus() {
+        Epic epic = new Epic(1, "Epic 1", "Description 1", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(epic);
+        Epic emptyEpic = new Epic(2, "Epic 2", "Description 2", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(emptyEpic);
+        SubTask subtask1 = new SubTask(3, "SubTask 1", "Description 1", Status.DONE,
+                LocalDateTime.of(2020, 2, 1, 10, 0), Duration.ofMinutes(10), epic.getId());
+        SubTask subtask2 = new SubTask(4, "SubTask 2", "Description 2", Status.IN_PROGRESS,
+                LocalDateTime.of(2020, 2, 1, 11, 0), Duration.ofMinutes(10), epic.getId());
+        taskManager.addSubtask(subtask1);
+        taskManager.addSubtask(subtask2);
+
+        assertEquals(List.of(subtask1),
+                taskManager.findTasks(new TaskQuery(TaskType.SUBTASK, Status.DONE, epic.getId(), null, null)),
+                "Подзадачи должны фильтроваться по эпику и статусу.");
+        assertEquals(List.of(epic),
+                taskManager.findTasks(new TaskQuery(TaskType.EPIC, Status.IN_PROGRESS, null, null, null)),
+                "Статус эпика должен попадать в индекс.");
+
+        taskManager.removeSubtask(subtask2.getId());
+        assertEquals(List.of(epic),
+                taskManager.findTasks(new TaskQuery(TaskType.EPIC, Status.DONE, null, null, null)),
+                "Индекс должен обновляться при пересчёте статуса эпика.");
+        assertTrue(taskManager.findTasks(new TaskQuery(TaskType.SUBTASK, Status.IN_PROGRESS, null, null, null)).isEmpty(),
+                "Удалённая подзадача не должна находиться.");
+    }
+
+    @Test
+    void shouldReturnPriorityTasksInWindow() {
+        Task early = new Task(2, "Task 2", "Description 2", Status.NEW,
+                LocalDateTime.of(2021, 3, 1, 9, 0), Duration.ofMinutes(30));
+        Task middle = new Task(3, "Task 3", "Description 3", Status.NEW,
+                LocalDateTime.of(2021, 3, 2, 9, 0), Duration.ofMinutes(30));
+        Task late = new Task(4, "Task 4", "Description 4", Status.NEW,
+                LocalDateTime.of(2021, 3, 3, 9, 0), Duration.ofMinutes(30));
+        taskManager.addTask(late);
+        taskManager.addTask(early);
+        taskManager.addTask(middle);
+
+        assertEquals(List.of(early, middle),
+                taskManager.getPriorityTasks(LocalDateTime.of(2021, 3, 1, 9, 0), LocalDateTime.of(2021, 3, 3, 9, 0), 10),
+                "Окно должно включать начало и исключать конец.");
+        assertEquals(List.of(middle, late),
+                taskManager.getPriorityTasks(LocalDateTime.of(2021, 3, 2, 0, 0), null, 10),
+                "Окно без конца должно включать все поздние задачи.");
+        assertEquals(List.of(early),
+                taskManager.getPriorityTasks(null, LocalDateTime.of(2021, 3, 3, 0, 0), 1),
+                "Должен соблюдаться лимит.");
+        assertTrue(taskManager.getPriorityTasks(LocalDateTime.of(2021, 3, 3, 0, 0),
+                LocalDateTime.of(2021, 3, 2, 0, 0), 10).isEmpty(), "Пустое окно должно возвращать пустой список.");
+    }
+
+    @Test
+    void shouldPageTasksByIdCursor() {
+        for (int i = 0; i < 5; i++) {
+            taskManager.addTask(new Task(0, "Task " + i, "Description", Status.NEW,
+                    LocalDateTime.of(2022, 5, 1, 10, 0).plusHours(i), Duration.ofMinutes(30)));
+        }
+
+        List<Task> firstPage = taskManager.getTasksAfter(0, 2);
+        assertEquals(List.of(1, 2), firstPage.stream().map(Task::getId).toList(), "Первая страница должна начинаться с минимального id.");
+
+        taskManager.addTask(new Task(0, "Task 5", "Description", Status.NEW,
+                LocalDateTime.of(2022, 5, 2, 10, 0), Duration.ofMinutes(30)));
+        taskManager.removeTask(2);
+
+        List<Task> secondPage = taskManager.getTasksAfter(2, 2);
+        assertEquals(List.of(3, 4), secondPage.stream().map(Task::getId).toList(), "Курсор должен оставаться валидным после изменений.");
+        assertEquals(List.of(5, 6), taskManager.getTasksAfter(4, 10).stream().map(Task::getId).toList());
+        assertTrue(taskManager.getTasksAfter(6, 10).isEmpty(), "После последнего id страница должна быть пустой.");
+    }
+
+    @Test
+    void shouldPagePrioritizedTasksAndHistory() {
+        Task late = new Task(0, "Task 1", "Description", Status.NEW,
+                LocalDateTime.of(2022, 6, 1, 12, 0), Duration.ofMinutes(30));
+        Task early = new Task(0, "Task 2", "Description", Status.NEW,
+                LocalDateTime.of(2022, 6, 1, 9, 0), Duration.ofMinutes(30));
+        Task middle = new Task(0, "Task 3", "Description", Status.NEW,
+                LocalDateTime.of(2022, 6, 1, 10, 0), Duration.ofMinutes(30));
+        taskManager.addTask(late);
+        taskManager.addTask(early);
+        taskManager.addTask(middle);
+
+        List<Task> firstPage = taskManager.getPriorityTasksAfter(null, 0, 2);
+        assertEquals(List.of(early, middle), firstPage, "Страница должна идти в порядке приоритета.");
+        Task cursor = firstPage.get(1);
+        assertEquals(List.of(late), taskManager.getPriorityTasksAfter(cursor.getStartTime(), cursor.getId(), 2));
+
+        taskManager.getTask(late.getId());
+        taskManager.getTask(early.getId());
+        taskManager.getTask(middle.getId());
+        HistoryPage historyPage = taskManager.getHistoryAfter(0, 2);
+        assertEquals(List.of(late, early), historyPage.getTasks(), "История должна начинаться с первого просмотра.");
+        assertEquals(List.of(middle), taskManager.getHistoryAfter(historyPage.getCursor(), 2).getTasks());
+    }
+
+    @Test
+    void shouldFindFreeSlots() {
+        taskManager.addTask(new Task(0, "Task 1", "Description", Status.NEW,
+                LocalDateTime.of(2022, 7, 1, 8, 0), Duration.ofMinutes(90)));
+        taskManager.addTask(new Task(0, "Task 2", "Description", Status.NEW,
+                LocalDateTime.of(2022, 7, 1, 10, 0), Duration.ofMinutes(30)));
+        taskManager.addTask(new Task(0, "Task 3", "Description", Status.NEW,
+                LocalDateTime.of(2022, 7, 1, 11, 0), Duration.ofMinutes(60)));
+
+        List<TimeSlot> slots = taskManager.findFreeSlots(LocalDateTime.of(2022, 7, 1, 9, 0), Duration.ofMinutes(30), 3);
+
+        assertEquals(List.of(
+                new TimeSlot(LocalDateTime.of(2022, 7, 1, 9, 30), LocalDateTime.of(2022, 7, 1, 10, 0)),
+                new TimeSlot(LocalDateTime.of(2022, 7, 1, 10, 30), LocalDateTime.of(2022, 7, 1, 11, 0)),
+                new TimeSlot(LocalDateTime.of(2022, 7, 1, 12, 0), null)), slots,
+                "Окна должны начинаться после уже идущей задачи и заканчиваться открытым интервалом.");
+
+        TimeSlot longSlot = taskManager.findFreeSlots(LocalDateTime.of(2022, 7, 1, 9, 0), Duration.ofMinutes(45), 1).get(0);
+        assertEquals(LocalDateTime.of(2022, 7, 1, 12, 0), longSlot.getStart(), "Короткие промежутки должны пропускаться.");
+        assertDoesNotThrow(() -> taskManager.addTask(new Task(0, "Task 4", "Description", Status.NEW,
+                slots.get(0).getStart(), Duration.ofMinutes(30))), "Найденное окно должно быть свободно.");
+    }
+
+    @Test
+    void shouldAddAllOrNothing() {
+        Epic epic = new Epic(0, "Epic 1", "Description 1", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(epic);
+        Task task = new Task(0, "Task 1", "Description", Status.NEW,
+                LocalDateTime.of(2022, 8, 1, 10, 0), Duration.ofMinutes(30));
+        SubTask subtask = new SubTask(0, "SubTask 1", "Description", Status.DONE,
+                LocalDateTime.of(2022, 8, 1, 9, 0), Duration.ofMinutes(30), epic.getId());
+
+        taskManager.addAll(List.of(task, subtask));
+
+        assertEquals(List.of(task), taskManager.getAllTasks(), "Задача из пакета должна быть добавлена.");
+        assertEquals(List.of(subtask), taskManager.getSubtasksOfEpic(epic.getId()), "Подзадача должна попасть в эпик.");
+        assertEquals(Status.DONE, taskManager.getEpic(epic.getId()).getStatus(), "Статус эпика должен пересчитываться.");
+
+        Task free = new Task(0, "Task 2", "Description", Status.NEW,
+                LocalDateTime.of(2022, 8, 2, 10, 0), Duration.ofMinutes(30));
+        Task clashing = new Task(0, "Task 3", "Description", Status.NEW,
+                LocalDateTime.of(2022, 8, 2, 10, 15), Duration.ofMinutes(30));
+        assertThrows(ValidationException.class, () -> taskManager.addAll(List.of(free, clashing)),
+                "Пересечения внутри пакета должны отклоняться.");
+        assertEquals(1, taskManager.getAllTasks().size(), "Отклонённый пакет не должен применяться частично.");
+        assertDoesNotThrow(() -> taskManager.addTask(free), "Отклонённый пакет не должен занимать время.");
+    }
+
+    @Test
+    void shouldUpdateAllWithSwappedSlots() {
+        Task first = new Task(0, "Task 1", "Description", Status.NEW,
+                LocalDateTime.of(2022, 9, 1, 10, 0), Duration.ofMinutes(30));
+        Task second = new Task(0, "Task 2", "Description", Status.NEW,
+                LocalDateTime.of(2022, 9, 1, 11, 0), Duration.ofMinutes(30));
+        taskManager.addTask(first);
+        taskManager.addTask(second);
+
+        Task movedFirst = new Task(first.getId(), "Task 1", "Description", Status.IN_PROGRESS,
+                second.getStartTime(), Duration.ofMinutes(30));
+        Task movedSecond = new Task(second.getId(), "Task 2", "Description", Status.NEW,
+                first.getStartTime(), Duration.ofMinutes(30));
+        taskManager.updateAll(List.of(movedFirst, movedSecond));
+
+        assertEquals(List.of(movedSecond, movedFirst), taskManager.getPriorityTasks(), "Задачи должны поменяться местами.");
+        assertEquals(Status.IN_PROGRESS, taskManager.getTask(first.getId()).getStatus());
+
+        Task missing = new Task(999, "Task 3", "Description", Status.NEW, null, null);
+        assertThrows(ValidationException.class, () -> taskManager.updateAll(List.of(movedFirst, missing)),
+                "Пакет с несуществующей задачей должен отклоняться.");
+        Task blocked = new Task(0, "Task 4", "Description", Status.NEW,
+                LocalDateTime.of(2022, 9, 1, 11, 10), Duration.ofMinutes(10));
+        assertThrows(ValidationException.class, () -> taskManager.addTask(blocked),
+                "После отклонённого пакета старые интервалы должны сохраняться.");
+    }
+
+    @Test
+    void shouldNotScheduleEpicWhenBatchWithEpicIsRejected() {
+        Epic epic = new Epic(0, "Epic 1", "Description", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(epic);
+        taskManager.addSubtask(new SubTask(0, "Subtask 1", "Description", Status.NEW,
+                LocalDateTime.of(2022, 10, 1, 9, 0), Duration.ofMinutes(30), epic.getId()));
+        taskManager.addSubtask(new SubTask(0, "Subtask 2", "Description", Status.NEW,
+                LocalDateTime.of(2022, 10, 1, 11, 0), Duration.ofMinutes(30), epic.getId()));
+        Task task = new Task(0, "Task 1", "Description", Status.NEW,
+                LocalDateTime.of(2022, 10, 1, 13, 0), Duration.ofMinutes(30));
+        taskManager.addTask(task);
+
+        Epic renamed = new Epic(epic.getId(), "Epic 2", "Description", Status.NEW, Duration.ZERO);
+        Task overlapping = new Task(task.getId(), "Task 1", "Description", Status.NEW,
+                LocalDateTime.of(2022, 10, 1, 9, 10), Duration.ofMinutes(10));
+        assertThrows(ValidationException.class, () -> taskManager.updateAll(List.of(renamed, overlapping)),
+                "Пакет с пересечением должен отклоняться.");
+
+        assertEquals("Epic 1", taskManager.getEpic(epic.getId()).getName(), "Отклонённый пакет не должен менять эпик.");
+        assertFalse(taskManager.getPriorityTasks().contains(epic), "Эпик не должен попадать в список приоритетов.");
+        Task between = new Task(0, "Task 2", "Description", Status.NEW,
+                LocalDateTime.of(2022, 10, 1, 10, 0), Duration.ofMinutes(15));
+        assertDoesNotThrow(() -> taskManager.addTask(between), "Интервал эпика не должен попадать в расписание.");
+        Task blocked = new Task(0, "Task 3", "Description", Status.NEW,
+                LocalDateTime.of(2022, 10, 1, 13, 10), Duration.ofMinutes(10));
+        assertThrows(ValidationException.class, () -> taskManager.addTask(blocked),
+                "Интервал задачи должен восстанавливаться после отклонённого пакета.");
+    }
+
     @Test
     void shouldDeleteTaskAndHistory() {
         Task task = new Task(3,"Task 1", "Description 1", Status.NEW, LocalDateTime.of(2004,4,4,4,4,4), Duration.ofMinutes(2));
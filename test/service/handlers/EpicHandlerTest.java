@@ -281,4 +281,18 @@ public class EpicHandlerTest {
         HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
         assertEquals(404, response.statusCode(), "Expected 404 Not Found for non-existent epic deletion");
     }
+
+    @Test
+    public void testGetEpicsRejectsEpicFilter() throws IOException, InterruptedException {
+        taskManager.addEpic(new Epic(1, "Epic 1", "Description 1", Status.NEW, LocalDateTime.now(), Duration.ofMinutes(10)));
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/epics?epicId=1");
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Expected 400 Bad Request for an epicId filter on epics");
+    }
 }
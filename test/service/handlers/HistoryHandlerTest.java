@@ -174,4 +174,92 @@ public class HistoryHandlerTest {
         assertNotNull(history, "History should not be null");
         assertTrue(history.isEmpty(), "History should be empty after deleting all tasks");
     }
+
+    @Test
+    public void testHistoryPerSession() throws IOException, InterruptedException {
+        Task task1 = new Task(1, "Task 1", "Description 1", Status.NEW, LocalDateTime.now(), Duration.ofMinutes(15));
+        Task task2 = new Task(2, "Task 2", "Description 2", Status.NEW, LocalDateTime.now().plusMinutes(20), Duration.ofMinutes(10));
+        Epic epic = new Epic(3, "Epic 1", "Epic Description", Status.NEW, LocalDateTime.now().plusMinutes(40), Duration.ofMinutes(30));
+        taskManager.addTask(task1);
+        taskManager.addTask(task2);
+        taskManager.addEpic(epic);
+
+        HttpClient client = HttpClient.newHttpClient();
+        view(client, "/api/tasks/1", "alice");
+        view(client, "/api/epics/3", "alice");
+        view(client, "/api/tasks/2", "bob");
+        view(client, "/api/tasks/1", "alice");
+        taskManager.removeEpic(3);
+
+        List<Task> alice = history(client, "alice");
+        assertEquals(1, alice.size(), "Session history should skip deleted tasks");
+        assertEquals(1, alice.get(0).getId(), "Session history should belong to its session");
+        List<Task> bob = history(client, "bob");
+        assertEquals(1, bob.size(), "Sessions should not share history");
+        assertEquals(2, bob.get(0).getId(), "Session history should belong to its session");
+        assertEquals(2, history(client, null).size(), "Global history should still include every remaining view");
+    }
+
+    @Test
+    public void testHistoryPagesSurviveCursorTaskViewedAgain() throws IOException, InterruptedException {
+        for (int id = 1; id <= 3; id++) {
+            taskManager.addTask(new Task(id, "Task " + id, "Description", Status.NEW,
+                    LocalDateTime.of(2024, 1, 1, 9, 0).plusHours(id), Duration.ofMinutes(15)));
+        }
+        HttpClient client = HttpClient.newHttpClient();
+        for (int id = 1; id <= 3; id++) {
+            view(client, "/api/tasks/" + id, "alice");
+        }
+
+        String[] sessions = {null, "alice"};
+        String[] cursors = new String[sessions.length];
+        for (int i = 0; i < sessions.length; i++) {
+            HttpResponse<String> first = page(client, "?limit=2", sessions[i]);
+            List<Task> firstPage = gson.fromJson(first.body(), new TaskTypeToken().getType());
+            assertEquals(List.of(1, 2), firstPage.stream().map(Task::getId).toList(), "First page is incorrect");
+            cursors[i] = first.headers().firstValue("X-History-Cursor").orElseThrow();
+        }
+        view(client, "/api/tasks/2", "alice");
+
+        for (int i = 0; i < sessions.length; i++) {
+            HttpResponse<String> next = page(client, "?limit=2&after=" + cursors[i], sessions[i]);
+            List<Task> nextPage = gson.fromJson(next.body(), new TaskTypeToken().getType());
+            assertEquals(List.of(3, 2), nextPage.stream().map(Task::getId).toList(),
+                    "Next page should resume after the cursor even when the cursor task was viewed again");
+        }
+    }
+
+    private HttpResponse<String> page(HttpClient client, String query, String session)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/api/history" + query))
+                .GET();
+        if (session != null) {
+            builder.header("X-Session-Id", session);
+        }
+        HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Failed to fetch history");
+        return response;
+    }
+
+    private void view(HttpClient client, String path, String session) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080" + path))
+                .header("X-Session-Id", session)
+                .GET()
+                .build();
+        assertEquals(200, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    private List<Task> history(HttpClient client, String session) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/api/history"))
+                .GET();
+        if (session != null) {
+            builder.header("X-Session-Id", session);
+        }
+        HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Failed to fetch history");
+        return gson.fromJson(response.body(), new TaskTypeToken().getType());
+    }
 }
@@ -70,4 +70,66 @@ public class PrioritizedHandlerTest {
         assertEquals(task1.getId(), prioritizedTasks.get(0).getId(), "First task in prioritized list is incorrect");
         assertEquals(task2.getId(), prioritizedTasks.get(1).getId(), "Second task in prioritized list is incorrect");
     }
+
+    @Test
+    public void testGetPrioritizedTasksInWindow() throws IOException, InterruptedException {
+        Duration duration = Duration.ofMinutes(30);
+        taskManager.addTask(new Task(1, "Monday Task", "Task Description 1", Status.NEW,
+                LocalDateTime.of(2023, 4, 3, 9, 0), duration));
+        taskManager.addTask(new Task(2, "Tuesday Task", "Task Description 2", Status.NEW,
+                LocalDateTime.of(2023, 4, 4, 9, 0), duration));
+        taskManager.addTask(new Task(3, "Tuesday Task 2", "Task Description 3", Status.NEW,
+                LocalDateTime.of(2023, 4, 4, 10, 0), duration));
+        taskManager.addTask(new Task(4, "Wednesday Task", "Task Description 4", Status.NEW,
+                LocalDateTime.of(2023, 4, 5, 9, 0), duration));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/prioritized?from=2023-04-04T00:00&to=2023-04-05T00:00&limit=1");
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode(), "Failed to fetch prioritized tasks in window");
+        List<Task> prioritizedTasks = gson.fromJson(response.body(), new TaskTypeToken().getType());
+        assertEquals(1, prioritizedTasks.size(), "Limit is not applied");
+        assertEquals(2, prioritizedTasks.get(0).getId(), "Window must start with the earliest task");
+
+        URI invalidUrl = URI.create("http://localhost:8080/api/prioritized?limit=0");
+        HttpResponse<String> invalidResponse = client.send(HttpRequest.newBuilder().uri(invalidUrl).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, invalidResponse.statusCode(), "Invalid limit must be rejected");
+    }
+
+    @Test
+    public void testGetPrioritizedTasksAfterCursorWithoutStart() throws IOException, InterruptedException {
+        Duration duration = Duration.ofMinutes(30);
+        Task first = new Task(0, "Monday Task", "Task Description 1", Status.NEW,
+                LocalDateTime.of(2023, 4, 3, 9, 0), duration);
+        Task second = new Task(0, "Tuesday Task", "Task Description 2", Status.NEW,
+                LocalDateTime.of(2023, 4, 4, 9, 0), duration);
+        Task third = new Task(0, "Wednesday Task", "Task Description 3", Status.NEW,
+                LocalDateTime.of(2023, 4, 5, 9, 0), duration);
+        taskManager.addTask(first);
+        taskManager.addTask(second);
+        taskManager.addTask(third);
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/prioritized?after=" + first.getId() + "&limit=10");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder().uri(url).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode(), "Cursor without afterStart must be resolved");
+        List<Task> page = gson.fromJson(response.body(), new TaskTypeToken().getType());
+        assertEquals(2, page.size(), "Scheduled tasks after the cursor must not be skipped");
+        assertEquals(second.getId(), page.get(0).getId(), "Page must continue right after the cursor");
+        assertEquals(third.getId(), page.get(1).getId());
+
+        URI missingUrl = URI.create("http://localhost:8080/api/prioritized?after=999&limit=10");
+        HttpResponse<String> missingResponse = client.send(HttpRequest.newBuilder().uri(missingUrl).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, missingResponse.statusCode(), "Unknown cursor without afterStart must be rejected");
+    }
 }
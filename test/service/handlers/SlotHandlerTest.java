@@ -0,0 +1,83 @@
+package service.handlers;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import model.Task;
+import model.TimeSlot;
+import model.enums.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.Managers;
+import service.managers.InMemoryTaskManager;
+import service.managers.TaskManager;
+import service.server.HttpTaskServer;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SlotHandlerTest {
+
+    TaskManager taskManager;
+    HttpTaskServer taskServer;
+    Gson gson;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        taskManager = new InMemoryTaskManager();
+        taskServer = new HttpTaskServer(taskManager);
+        gson = Managers.getGson();
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    public void testGetFreeSlots() throws IOException, InterruptedException {
+        taskManager.addTask(new Task(1, "Morning Task", "Task Description 1", Status.NEW,
+                LocalDateTime.of(2023, 4, 3, 9, 0), Duration.ofMinutes(30)));
+        taskManager.addTask(new Task(2, "Noon Task", "Task Description 2", Status.NEW,
+                LocalDateTime.of(2023, 4, 3, 12, 0), Duration.ofMinutes(30)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/slots?from=2023-04-03T09:00&duration=PT1H&count=2");
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode(), "Failed to fetch free slots");
+        List<TimeSlot> slots = gson.fromJson(response.body(), new TypeToken<List<TimeSlot>>() {
+        }.getType());
+        assertEquals(2, slots.size(), "Slots list size is incorrect");
+        assertEquals(LocalDateTime.of(2023, 4, 3, 9, 30), slots.get(0).getStart(), "First slot start is incorrect");
+        assertEquals(LocalDateTime.of(2023, 4, 3, 12, 0), slots.get(0).getEnd(), "First slot end is incorrect");
+        assertEquals(LocalDateTime.of(2023, 4, 3, 12, 30), slots.get(1).getStart(), "Last slot start is incorrect");
+        assertNull(slots.get(1).getEnd(), "Last slot must be open-ended");
+    }
+
+    @Test
+    public void testGetFreeSlotsWithoutDuration() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/slots?from=2023-04-03T09:00");
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode(), "Missing duration must be rejected");
+    }
+}
@@ -1,5 +1,9 @@
 package service.handlers;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import model.Epic;
+import model.SubTask;
 import model.Task;
 import model.enums.Status;
 import org.junit.jupiter.api.AfterEach;
@@ -229,4 +233,143 @@ public class TaskHandlerTest {
         Assertions.assertNotNull(tasks, "Список задач не должен быть null");
         Assertions.assertTrue(tasks.isEmpty(), "Список задач должен быть пуст");
     }
+
+    @Test
+    public void testGetTasksWithFilter() throws IOException, InterruptedException {
+        Task task1 = new Task(1, "Task 1", "Description 1", Status.NEW,
+                LocalDateTime.of(2023, 1, 1, 10, 0), Duration.ofMinutes(5));
+        Task task2 = new Task(2, "Task 2", "Description 2", Status.IN_PROGRESS,
+                LocalDateTime.of(2023, 1, 1, 11, 0), Duration.ofMinutes(5));
+        Task task3 = new Task(3, "Task 3", "Description 3", Status.IN_PROGRESS,
+                LocalDateTime.of(2023, 1, 3, 11, 0), Duration.ofMinutes(5));
+        taskManager.addTask(task1);
+        taskManager.addTask(task2);
+        taskManager.addTask(task3);
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/tasks?status=IN_PROGRESS&from=2023-01-01T00:00&to=2023-01-02T00:00");
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        Assertions.assertEquals(200, response.statusCode(), "Сервер должен вернуть статус 200 OK");
+        List<Task> tasks = gson.fromJson(response.body(), new TaskTypeToken().getType());
+        Assertions.assertEquals(1, tasks.size(), "Количество задач не совпадает");
+        Assertions.assertEquals("Task 2", tasks.get(0).getName(), "Имя задачи не совпадает");
+    }
+
+    @Test
+    public void testGetTasksWithInvalidFilter() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/tasks?status=UNKNOWN");
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(400, response.statusCode(), "Сервер должен вернуть Bad Request для неверного фильтра");
+    }
+
+    @Test
+    public void testGetTasksRejectsEpicFilter() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/tasks?epicId=1");
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(400, response.statusCode(), "Фильтр по эпику не применим к задачам");
+    }
+
+    @Test
+    public void testGetTasksPage() throws IOException, InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            taskManager.addTask(new Task(0, "Task " + i, "Description", Status.NEW,
+                    LocalDateTime.of(2023, 2, 1, 10, 0).plusHours(i), Duration.ofMinutes(5)));
+        }
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/tasks?after=1&limit=1");
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        Assertions.assertEquals(200, response.statusCode(), "Сервер должен вернуть статус 200 OK");
+        List<Task> tasks = gson.fromJson(response.body(), new TaskTypeToken().getType());
+        Assertions.assertEquals(1, tasks.size(), "Размер страницы не совпадает");
+        Assertions.assertEquals(2, tasks.get(0).getId(), "Страница должна начинаться после курсора");
+
+        URI invalidUrl = URI.create("http://localhost:8080/api/tasks?limit=-1");
+        HttpResponse<String> invalidResponse = client.send(HttpRequest.newBuilder().uri(invalidUrl).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(400, invalidResponse.statusCode(), "Сервер должен вернуть Bad Request для неверного лимита");
+    }
+
+    @Test
+    public void testCreateTasksInBulk() throws IOException, InterruptedException {
+        List<Task> batch = List.of(
+                new Task(0, "Task 1", "Description 1", Status.NEW, LocalDateTime.of(2023, 3, 1, 9, 0), Duration.ofMinutes(5)),
+                new Task(0, "Task 2", "Description 2", Status.NEW, LocalDateTime.of(2023, 3, 1, 10, 0), Duration.ofMinutes(5)));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/tasks/bulk");
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(batch)))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        Assertions.assertEquals(201, response.statusCode(), "Ошибка при пакетном создании задач");
+        List<Task> created = gson.fromJson(response.body(), new TaskTypeToken().getType());
+        Assertions.assertEquals(List.of(1, 2), created.stream().map(Task::getId).toList(), "Сервер должен вернуть присвоенные id");
+        Assertions.assertEquals(2, taskManager.getAllTasks().size(), "Задачи не были добавлены");
+    }
+
+    @Test
+    public void testCreateSubtasksAndEpicsInBulk() throws IOException, InterruptedException {
+        Epic epic = new Epic(0, "Epic 1", "Description", Status.NEW, Duration.ZERO);
+        taskManager.addEpic(epic);
+        SubTask subtask = new SubTask(0, "Subtask 1", "Description", Status.DONE,
+                LocalDateTime.of(2023, 3, 1, 9, 0), Duration.ofMinutes(5), epic.getId());
+        JsonArray batch = new JsonArray();
+        batch.add(gson.toJsonTree(subtask));
+        JsonObject importedEpic = gson.toJsonTree(new Epic(0, "Epic 2", "Description", Status.NEW, Duration.ZERO))
+                .getAsJsonObject();
+        importedEpic.addProperty("type", "EPIC");
+        batch.add(importedEpic);
+        batch.add(gson.toJsonTree(new Task(0, "Task 1", "Description", Status.NEW,
+                LocalDateTime.of(2023, 3, 1, 10, 0), Duration.ofMinutes(5))));
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI url = URI.create("http://localhost:8080/api/tasks/bulk");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder().uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString(batch.toString())).build(), HttpResponse.BodyHandlers.ofString());
+
+        Assertions.assertEquals(201, response.statusCode(), "Ошибка при пакетном импорте плана");
+        Assertions.assertEquals(1, taskManager.getAllSubtasks().size(), "Подзадача должна сохраняться как подзадача");
+        SubTask imported = taskManager.getAllSubtasks().get(0);
+        Assertions.assertEquals(epic.getId(), imported.getEpicId(), "Подзадача должна сохранять эпик");
+        Assertions.assertEquals(subtask.getStartTime(), imported.getStartTime(), "Время начала не совпадает");
+        Assertions.assertEquals(List.of(imported.getId()), taskManager.getEpic(epic.getId()).getSubTasks(),
+                "Подзадача должна привязываться к эпику");
+        Assertions.assertEquals(2, taskManager.getAllEpics().size(), "Эпик должен сохраняться как эпик");
+        Assertions.assertEquals(1, taskManager.getAllTasks().size(), "Задача должна сохраняться как задача");
+
+        JsonObject unknown = gson.toJsonTree(new Task(0, "Task 2", "Description", Status.NEW)).getAsJsonObject();
+        unknown.addProperty("type", "MILESTONE");
+        HttpResponse<String> invalidResponse = client.send(HttpRequest.newBuilder().uri(url)
+                .POST(HttpRequest.BodyPublishers.ofString("[" + unknown + "]")).build(), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(400, invalidResponse.statusCode(), "Неизвестный тип задачи должен отклоняться");
+        Assertions.assertEquals(1, taskManager.getAllTasks().size(), "Отклонённый пакет не должен добавлять задачи");
+    }
 }
@@ -0,0 +1,51 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntArraySetTest {
+
+    @Test
+    void shouldKeepInsertionOrderUntilRemoval() {
+        IntArraySet set = new IntArraySet();
+        set.add(5);
+        set.add(3);
+        set.add(9);
+
+        assertFalse(set.add(3), "Повторное добавление не должно менять множество.");
+        assertArrayEquals(new int[]{5, 3, 9}, set.toArray());
+        assertEquals("[5, 3, 9]", set.toString());
+
+        assertTrue(set.remove(5));
+        assertArrayEquals(new int[]{9, 3}, set.toArray(), "Последний элемент должен занять место удалённого.");
+    }
+
+    @Test
+    void shouldMatchHashSetOnRandomOperations() {
+        Random random = new Random(5);
+        IntArraySet set = new IntArraySet();
+        Set<Integer> expected = new HashSet<>();
+
+        for (int step = 0; step < 50_000; step++) {
+            int value = random.nextInt(3_000) * (random.nextBoolean() ? 32 : -1);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+            assertEquals(expected.size(), set.size());
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+
+        int[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).sorted().toArray(), values);
+
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+}
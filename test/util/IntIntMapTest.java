@@ -0,0 +1,51 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntMapTest {
+
+    @Test
+    void shouldRemoveFromLongSequentialRuns() {
+        IntIntMap map = new IntIntMap();
+        for (int key = 1; key <= 10_000; key++) {
+            map.put(key, -key);
+        }
+        for (int key = 2; key <= 10_000; key += 2) {
+            assertTrue(map.remove(key));
+        }
+
+        assertEquals(5_000, map.size());
+        for (int key = 1; key <= 10_000; key++) {
+            assertEquals(key % 2 == 1 ? -key : 0, map.get(key, 0));
+        }
+    }
+
+    @Test
+    void shouldMatchHashMapOnRandomOperations() {
+        Random random = new Random(5);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 50_000; step++) {
+            int key = random.nextInt(2_000) * (random.nextBoolean() ? 64 : -1);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.put(key, step);
+                map.put(key, step);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.getOrDefault(key, -1), map.get(key, -1));
+        }
+
+        assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), map.keys(),
+                "Ключи должны сохраняться после сдвигов при удалении.");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(64));
+    }
+}
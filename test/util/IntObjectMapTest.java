@@ -0,0 +1,61 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntObjectMapTest {
+
+    @Test
+    void shouldRemoveFromLongSequentialRuns() {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        for (int key = 1; key <= 10_000; key++) {
+            map.put(key, key);
+        }
+        for (int key = 2; key <= 10_000; key += 2) {
+            assertEquals(key, map.remove(key));
+        }
+
+        assertEquals(5_000, map.size());
+        for (int key = 1; key <= 10_000; key++) {
+            assertEquals(key % 2 == 1 ? Integer.valueOf(key) : null, map.get(key));
+        }
+    }
+
+    @Test
+    void shouldMatchHashMapOnRandomOperations() {
+        Random random = new Random(3);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 50_000; step++) {
+            int key = random.nextInt(2_000) * (random.nextBoolean() ? 64 : -1);
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, step), map.put(key, step));
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()), "Значение должно находиться после сдвигов при удалении.");
+        }
+        List<Integer> values = new ArrayList<>(map.values());
+        values.sort(null);
+        List<Integer> expectedValues = new ArrayList<>(expected.values());
+        expectedValues.sort(null);
+        assertEquals(expectedValues, values);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(64));
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntSortedMapTest {
+
+    @Test
+    void shouldFindFirstIndexAfterCursor() {
+        IntSortedMap<String> map = new IntSortedMap<>();
+        map.put(10, "a");
+        map.put(30, "c");
+        map.put(20, "b");
+
+        assertEquals("b", map.valueAt(1), "Значения должны храниться в порядке ключей.");
+        assertEquals(0, map.indexAfter(0));
+        assertEquals(2, map.indexAfter(20), "Курсор на существующем ключе должен его пропускать.");
+        assertEquals(2, map.indexAfter(25), "Удалённый курсор должен указывать на следующий ключ.");
+        assertEquals(3, map.indexAfter(30));
+    }
+
+    @Test
+    void shouldMatchTreeMapOnRandomOperations() {
+        Random random = new Random(9);
+        IntSortedMap<Integer> map = new IntSortedMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+
+        for (int step = 0; step < 50_000; step++) {
+            int key = random.nextInt(5_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, step), map.put(key, step));
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.headMap(key, true).size(), map.indexAfter(key));
+        }
+
+        List<Integer> keys = new ArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < map.size(); i++) {
+            keys.add(map.keyAt(i));
+            values.add(map.valueAt(i));
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+        assertEquals(new ArrayList<>(expected.values()), values);
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void shouldKeepPositionsWhenChunksEmptyOut() {
+        IntSortedMap<Integer> map = new IntSortedMap<>();
+        for (int key = 0; key < 5_000; key++) {
+            map.put(key, key);
+        }
+        for (int key = 0; key < 2_000; key++) {
+            map.remove(key);
+        }
+        map.put(-1, -1);
+
+        assertEquals(3_001, map.size());
+        assertEquals(-1, map.keyAt(0), "Ключ перед первым блоком должен вставляться в начало.");
+        assertEquals(2_000, map.keyAt(1));
+        assertEquals(4_999, map.keyAt(3_000));
+        assertEquals(1, map.indexAfter(1_999), "Удалённые ключи не должны сдвигать позиции.");
+        assertEquals(3_001, map.indexAfter(10_000));
+    }
+}
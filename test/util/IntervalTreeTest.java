@@ -0,0 +1,107 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalTreeTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void shouldDetectOverlapWithStoredInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1, BASE, BASE.plusMinutes(30));
+
+        assertTrue(tree.overlaps(BASE.plusMinutes(10), BASE.plusMinutes(40), 0), "Интервалы пересекаются.");
+        assertFalse(tree.overlaps(BASE.plusMinutes(30), BASE.plusMinutes(40), 0), "Смежные интервалы не пересекаются.");
+        assertFalse(tree.overlaps(BASE.minusMinutes(10), BASE, 0), "Смежные интервалы не пересекаются.");
+        assertFalse(tree.overlaps(BASE, BASE.plusMinutes(30), 1), "Интервал не должен пересекаться сам с собой.");
+    }
+
+    @Test
+    void shouldForgetRemovedAndReplacedIntervals() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1, BASE, BASE.plusMinutes(30));
+        tree.add(1, BASE.plusHours(2), BASE.plusHours(3));
+
+        assertEquals(1, tree.size(), "Повторное добавление должно заменять интервал.");
+        assertFalse(tree.overlaps(BASE, BASE.plusMinutes(30), 0), "Старый интервал должен быть удалён.");
+
+        tree.remove(1);
+        assertEquals(0, tree.size());
+        assertFalse(tree.overlaps(BASE.plusHours(2), BASE.plusHours(3), 0), "Удалённый интервал не должен учитываться.");
+    }
+
+    @Test
+    void shouldMatchLinearScanOnRandomOperations() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<Integer, LocalDateTime[]> expected = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            int id = random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                tree.remove(id);
+                expected.remove(id);
+            } else {
+                LocalDateTime start = BASE.plusMinutes(random.nextInt(10_000));
+                LocalDateTime end = start.plusMinutes(random.nextInt(120));
+                tree.add(id, start, end);
+                expected.put(id, new LocalDateTime[]{start, end});
+            }
+
+            LocalDateTime queryStart = BASE.plusMinutes(random.nextInt(10_000));
+            LocalDateTime queryEnd = queryStart.plusMinutes(random.nextInt(120));
+            int excludedId = random.nextInt(300);
+            boolean linear = expected.entrySet().stream()
+                    .filter(entry -> entry.getKey() != excludedId)
+                    .anyMatch(entry -> queryStart.isBefore(entry.getValue()[1])
+                            && queryEnd.isAfter(entry.getValue()[0]));
+
+            assertEquals(linear, tree.overlaps(queryStart, queryEnd, excludedId), "Результат должен совпадать с полным перебором.");
+            assertEquals(expected.size(), tree.size());
+        }
+    }
+
+    @Test
+    void shouldBulkBuildFromSortedIntervals() {
+        Random random = new Random(7);
+        int count = 1_000;
+        int[] ids = new int[count];
+        LocalDateTime[] starts = new LocalDateTime[count];
+        LocalDateTime[] ends = new LocalDateTime[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            starts[i] = BASE.plusMinutes(10L * i);
+            ends[i] = starts[i].plusMinutes(1 + random.nextInt(60));
+        }
+        IntervalTree built = new IntervalTree();
+        built.build(ids, starts, ends, count);
+        IntervalTree inserted = new IntervalTree();
+        for (int i = 0; i < count; i++) {
+            inserted.add(ids[i], starts[i], ends[i]);
+        }
+
+        assertEquals(count, built.size());
+        for (int step = 0; step < 2_000; step++) {
+            LocalDateTime queryStart = BASE.plusMinutes(random.nextInt(10_500));
+            LocalDateTime queryEnd = queryStart.plusMinutes(random.nextInt(30));
+            assertEquals(inserted.overlaps(queryStart, queryEnd, 0), built.overlaps(queryStart, queryEnd, 0),
+                    "Построенное дерево должно совпадать с деревом из вставок.");
+        }
+        built.remove(1);
+        assertFalse(built.overlaps(starts[0], starts[0].plusSeconds(1), 0), "Удаление после построения должно работать.");
+    }
+
+    @Test
+    void shouldRejectUnsortedBulkBuild() {
+        IntervalTree tree = new IntervalTree();
+
+        assertThrows(IllegalArgumentException.class, () -> tree.build(new int[]{2, 1},
+                new LocalDateTime[]{BASE.plusHours(1), BASE}, new LocalDateTime[]{BASE.plusHours(2), BASE.plusHours(1)}, 2));
+    }
+}
@@ -0,0 +1,54 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentTreeMapTest {
+
+    @Test
+    void shouldLeavePreviousVersionsUntouched() {
+        PersistentTreeMap<Integer, String> empty = new PersistentTreeMap<>(Comparator.naturalOrder());
+        PersistentTreeMap<Integer, String> one = empty.put(1, "a");
+        PersistentTreeMap<Integer, String> two = one.put(2, "b");
+        PersistentTreeMap<Integer, String> removed = two.remove(1);
+
+        assertTrue(empty.isEmpty());
+        assertEquals(List.of("a"), one.values());
+        assertEquals(List.of("a", "b"), two.values());
+        assertEquals(List.of("b"), removed.values());
+        assertSame(removed, removed.remove(42), "Удаление отсутствующего ключа не должно создавать новую версию.");
+    }
+
+    @Test
+    void shouldMatchTreeMapOnRandomOperations() {
+        Random random = new Random(11);
+        PersistentTreeMap<Integer, Integer> map = new PersistentTreeMap<>(Comparator.naturalOrder());
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            int key = random.nextInt(1_000);
+            if (random.nextInt(3) == 0) {
+                map = map.remove(key);
+                expected.remove(key);
+            } else {
+                map = map.put(key, step);
+                expected.put(key, step);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        assertEquals(new ArrayList<>(expected.keySet()), map.keys(), "Ключи должны идти в порядке компаратора.");
+        assertEquals(new ArrayList<>(expected.values()), map.values());
+        int index = random.nextInt(expected.size());
+        assertEquals(new ArrayList<>(expected.keySet()).get(index), map.keys().get(index));
+        for (int key = -1; key <= 1_001; key += 7) {
+            assertEquals(expected.headMap(key).size(), map.rank(key), "Ранг должен совпадать с размером headMap.");
+        }
+    }
+}